@@ -0,0 +1,19 @@
+package com.example.catalog;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Read-only catalog service: the FireHorse {@code /api/books} read endpoints
+ * on WebFlux and R2DBC. It reads the same {@code books} tables that the main
+ * application writes through JPA, so browsing traffic can be routed here
+ * and scaled separately.
+ */
+@SpringBootApplication
+public class CatalogReactiveApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(CatalogReactiveApplication.class, args);
+	}
+
+}
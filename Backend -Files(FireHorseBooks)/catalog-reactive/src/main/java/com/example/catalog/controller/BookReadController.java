@@ -0,0 +1,84 @@
+package com.example.catalog.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.catalog.dto.BookView;
+import com.example.catalog.repository.BookReadRepository;
+import com.example.catalog.repository.TitleCursor;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The FireHorse {@code BookController} read endpoints with the same paths
+ * and response shapes, except that search pages by cursor. Lists are
+ * streamed: a JSON array by default, or one book per line with
+ * {@code Accept: application/x-ndjson}.
+ */
+@RestController
+@RequestMapping("/api/books")
+public class BookReadController {
+
+    @Autowired
+    private BookReadRepository bookReadRepository;
+
+    @Value("${books.catalog.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${books.catalog.max-page-size:100}")
+    private int maxPageSize;
+
+    @GetMapping(value = "/all", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<BookView> getAllBooks() {
+        return bookReadRepository.findAll();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<BookView>> getBookById(@PathVariable Long id) {
+        return bookReadRepository.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * One page of matches in title order. Pages are chained by cursor rather
+     * than numbered: {@code X-Next-Cursor} carries the cursor of the next
+     * page and is absent on the last one.
+     */
+    @GetMapping(value = "/search", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Mono<ResponseEntity<?>> searchBooks(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        TitleCursor after;
+        try {
+            after = cursor == null || cursor.isBlank() ? null : TitleCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest().body(e.getMessage()));
+        }
+        // One extra row tells us whether another page exists
+        return Mono.zip(bookReadRepository.countSearch(q),
+                        bookReadRepository.search(q, after, pageSize + 1).collectList())
+                .map(result -> {
+                    List<BookView> books = result.getT2();
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                            .header("X-Total-Count", String.valueOf(result.getT1()));
+                    if (books.size() > pageSize) {
+                        books = books.subList(0, pageSize);
+                        response.header("X-Next-Cursor", TitleCursor.after(books.get(pageSize - 1)).encode());
+                    }
+                    return response.body(books);
+                });
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.catalog.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import com.example.catalog.dto.BookView;
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking reads of the FireHorse {@code books} table. Like the JPA
+ * summary queries it never selects cover bytes; {@code hasImage} comes from
+ * a join on {@code book_images}. Rows are emitted as the driver decodes
+ * them, so a slow client slows the query down instead of filling memory.
+ */
+@Repository
+public class BookReadRepository {
+
+    private static final String SELECT = "SELECT b.id, b.title, b.author, b.price, b.category, b.stock, "
+            + "b.description, b.image_url, i.book_id IS NOT NULL AS has_image, b.created_at, b.updated_at "
+            + "FROM books b LEFT JOIN book_images i ON i.book_id = b.id";
+
+    private static final String[] SEARCH_COLUMNS = { "b.title", "b.author", "b.category" };
+    private static final int MIN_FULLTEXT_WORD = 3;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Flux<BookView> findAll() {
+        return databaseClient.sql(SELECT + " ORDER BY b.id")
+                .map(BookReadRepository::toView)
+                .all();
+    }
+
+    public Mono<BookView> findById(Long id) {
+        return databaseClient.sql(SELECT + " WHERE b.id = :id")
+                .bind("id", id)
+                .map(BookReadRepository::toView)
+                .one();
+    }
+
+    /**
+     * One page of books in title order, after the cursor when there is one,
+     * where every word of the query appears in the title, author or
+     * category. On MySQL the words are looked up in the {@code ft_books_search}
+     * FULLTEXT index (as prefixes, like FireHorse's search); words too short
+     * for the index, and every word on other databases, fall back to LIKE.
+     * FireHorse ranks the same search by relevance with
+     * its in-process index, which this service does not have; a query
+     * without words matches every book.
+     */
+    public Flux<BookView> search(String text, TitleCursor after, int limit) {
+        List<String> words = words(text);
+        List<String> clauses = new ArrayList<>();
+        if (!words.isEmpty()) {
+            clauses.add(matches(words));
+        }
+        if (after != null) {
+            // Row-value comparisons are not always served by the (title, id) index, so spell it out
+            clauses.add("(b.title > :afterTitle OR (b.title = :afterTitle AND b.id > :afterId))");
+        }
+        DatabaseClient.GenericExecuteSpec spec = databaseClient
+                .sql(SELECT + where(clauses) + " ORDER BY b.title, b.id LIMIT :limit")
+                .bind("limit", limit);
+        if (after != null) {
+            spec = spec.bind("afterTitle", after.getTitle()).bind("afterId", after.getId());
+        }
+        return bindWords(spec, words)
+                .map(BookReadRepository::toView)
+                .all();
+    }
+
+    public Mono<Long> countSearch(String text) {
+        List<String> words = words(text);
+        String where = words.isEmpty() ? "" : where(List.of(matches(words)));
+        return bindWords(databaseClient.sql("SELECT COUNT(*) FROM books b" + where), words)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    private boolean fulltext() {
+        return databaseClient.getConnectionFactory().getMetadata().getName()
+                .toLowerCase(Locale.ROOT).contains("mysql");
+    }
+
+    // Letters and digits only, so nothing in the query acts as a boolean or LIKE operator
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text != null) {
+            for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+                if (!word.isEmpty()) {
+                    words.add(word);
+                }
+            }
+        }
+        return words;
+    }
+
+    // MySQL does not index words shorter than innodb_ft_min_token_size (3); those still have to match
+    private static boolean indexed(String word, boolean fulltext) {
+        return fulltext && word.length() >= MIN_FULLTEXT_WORD;
+    }
+
+    private String matches(List<String> words) {
+        boolean fulltext = fulltext();
+        List<String> clauses = new ArrayList<>();
+        if (words.stream().anyMatch(word -> indexed(word, fulltext))) {
+            clauses.add("MATCH (b.title, b.author, b.category) AGAINST (:words IN BOOLEAN MODE)");
+        }
+        for (int i = 0; i < words.size(); i++) {
+            if (indexed(words.get(i), fulltext)) {
+                continue;
+            }
+            List<String> columns = new ArrayList<>();
+            for (String column : SEARCH_COLUMNS) {
+                columns.add("LOWER(" + column + ") LIKE :w" + i);
+            }
+            clauses.add("(" + String.join(" OR ", columns) + ")");
+        }
+        return String.join(" AND ", clauses);
+    }
+
+    private static String where(List<String> clauses) {
+        return clauses.isEmpty() ? "" : " WHERE " + String.join(" AND ", clauses);
+    }
+
+    private DatabaseClient.GenericExecuteSpec bindWords(DatabaseClient.GenericExecuteSpec spec, List<String> words) {
+        boolean fulltext = fulltext();
+        // Every indexed word required, each as a prefix
+        StringBuilder query = new StringBuilder();
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            if (indexed(word, fulltext)) {
+                query.append(query.length() == 0 ? "" : " ").append('+').append(word).append('*');
+            } else {
+                spec = spec.bind("w" + i, "%" + word + "%");
+            }
+        }
+        return query.length() == 0 ? spec : spec.bind("words", query.toString());
+    }
+
+    private static BookView toView(Readable row) {
+        Boolean hasImage = row.get("has_image", Boolean.class);
+        return new BookView(
+                row.get("id", Long.class),
+                row.get("title", String.class),
+                row.get("author", String.class),
+                row.get("price", BigDecimal.class),
+                row.get("category", String.class),
+                row.get("stock", Integer.class),
+                row.get("description", String.class),
+                row.get("image_url", String.class),
+                hasImage != null && hasImage,
+                row.get("created_at", LocalDateTime.class),
+                row.get("updated_at", LocalDateTime.class));
+    }
+}
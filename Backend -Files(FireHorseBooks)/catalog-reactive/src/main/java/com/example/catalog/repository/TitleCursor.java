@@ -0,0 +1,50 @@
+package com.example.catalog.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import com.example.catalog.dto.BookView;
+
+/**
+ * Position of the last book of a search page in title order: the title and
+ * the id that breaks ties. Serialized as an opaque URL-safe string.
+ */
+public class TitleCursor {
+
+    private final Long id;
+    private final String title;
+
+    private TitleCursor(Long id, String title) {
+        this.id = id;
+        this.title = title;
+    }
+
+    public static TitleCursor after(BookView book) {
+        return new TitleCursor(book.getId(), book.getTitle());
+    }
+
+    public static TitleCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(":", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Missing title");
+            }
+            return new TitleCursor(Long.valueOf(parts[0]), parts[1]);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        String raw = id + ":" + title;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.example.catalog.dto.BookView;
+import com.example.catalog.repository.BookReadRepository;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import reactor.core.publisher.Mono;
+
+// The schema comes from FireHorse's migrations, applied over JDBC to the same in-memory database
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///catalog;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "spring.flyway.url=jdbc:h2:mem:catalog;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.flyway.user=sa",
+        "spring.flyway.password=",
+        "spring.flyway.locations=filesystem:../src/main/resources/db/migration",
+        "spring.flyway.placeholders.text_type=clob",
+        "spring.flyway.placeholders.fulltext=" })
+public class BookReadControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private ConnectionFactory connectionFactory;
+
+    @BeforeEach
+    public void setUp() {
+        databaseClient.sql("DELETE FROM book_images").then()
+                .then(databaseClient.sql("DELETE FROM books").then())
+                .then(insert(1, "Dune", "Frank Herbert", "Fiction"))
+                .then(insert(2, "Dune Messiah", "Frank Herbert", "Fiction"))
+                .then(insert(3, "Emma", "Jane Austen", "Classics"))
+                .then(databaseClient.sql("INSERT INTO book_images (book_id, content_type, checksum, size_bytes) "
+                        + "VALUES (3, 'image/jpeg', 'abc', 10)").then())
+                .block();
+    }
+
+    @Test
+    public void testGetAllBooks_StreamsEveryBookAsNdjson() {
+        List<BookView> books = webTestClient.get().uri("/api/books/all")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(BookView.class).returnResult().getResponseBody();
+
+        assertEquals(3, books.size());
+        assertEquals("Dune", books.get(0).getTitle());
+        assertTrue(books.get(2).isHasImage());
+    }
+
+    @Test
+    public void testGetBookById_ReturnsNotFoundForMissingBook() {
+        webTestClient.get().uri("/api/books/3").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.author").isEqualTo("Jane Austen").jsonPath("$.hasImage").isEqualTo(true);
+        webTestClient.get().uri("/api/books/99").exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    public void testSearchBooks_MatchesEveryWordAndPagesByCursor() {
+        EntityExchangeResult<List<BookView>> first = webTestClient.get().uri("/api/books/search?q=dune herbert&size=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Total-Count", "2")
+                .expectBodyList(BookView.class).returnResult();
+        assertEquals(List.of("Dune"), titles(first.getResponseBody()));
+        String cursor = first.getResponseHeaders().getFirst("X-Next-Cursor");
+
+        EntityExchangeResult<List<BookView>> second = webTestClient.get()
+                .uri("/api/books/search?q=dune herbert&size=1&cursor={cursor}", cursor)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(BookView.class).returnResult();
+        assertEquals(List.of("Dune Messiah"), titles(second.getResponseBody()));
+        assertNull(second.getResponseHeaders().getFirst("X-Next-Cursor"));
+    }
+
+    @Test
+    public void testSearchBooks_FiltersByWordsTooShortForTheFulltextIndex() {
+        webTestClient.get().uri("/api/books/search?q=em").exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Total-Count", "1")
+                .expectBody().jsonPath("$[0].title").isEqualTo("Emma");
+
+        // The same repository as on MySQL: "em" is below the FULLTEXT minimum, so it runs as LIKE here too
+        BookReadRepository mysql = new BookReadRepository();
+        ReflectionTestUtils.setField(mysql, "databaseClient", DatabaseClient.create(reportingMySql()));
+        assertEquals(List.of("Emma"), titles(mysql.search("em", null, 10).collectList().block()));
+        assertEquals(1L, mysql.countSearch("em").block());
+    }
+
+    @Test
+    public void testSearchBooks_RejectsMalformedCursor() {
+        webTestClient.get().uri("/api/books/search?cursor=bm90LWEtY3Vyc29y").exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private static List<String> titles(List<BookView> books) {
+        return books.stream().map(BookView::getTitle).toList();
+    }
+
+    private ConnectionFactory reportingMySql() {
+        return new ConnectionFactory() {
+            @Override
+            public Publisher<? extends Connection> create() {
+                return connectionFactory.create();
+            }
+
+            @Override
+            public ConnectionFactoryMetadata getMetadata() {
+                return () -> "MySQL";
+            }
+        };
+    }
+
+    private Mono<Void> insert(long id, String title, String author, String category) {
+        return databaseClient.sql("INSERT INTO books (id, title, author, price, category, stock, created_at, updated_at) "
+                        + "VALUES (:id, :title, :author, 9.99, :category, 5, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)")
+                .bind("id", id)
+                .bind("title", title)
+                .bind("author", author)
+                .bind("category", category)
+                .then();
+    }
+}
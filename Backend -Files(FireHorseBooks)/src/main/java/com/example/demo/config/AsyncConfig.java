@@ -0,0 +1,61 @@
+package com.example.demo.config;
+
+import java.util.concurrent.Executor;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    @org.springframework.beans.factory.annotation.Value("${books.images.thumbnail.threads:2}")
+    private int thumbnailThreads;
+
+    /**
+     * Default executor for {@code @Async} and for async MVC responses such as
+     * the streamed catalog export. Boot backs off its own once any Executor
+     * bean exists, so it is declared here: virtual threads when
+     * spring.threads.virtual.enabled is active, otherwise the
+     * spring.task.execution pool.
+     */
+    @Bean(name = { "applicationTaskExecutor", "taskExecutor" })
+    public AsyncTaskExecutor applicationTaskExecutor(Environment environment,
+            SimpleAsyncTaskExecutorBuilder virtualThreads, ThreadPoolTaskExecutorBuilder threadPool) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return virtualThreads.build();
+        }
+        return threadPool.build();
+    }
+
+    // Thumbnails and imports keep small platform pools: the work is CPU-bound or
+    // deliberately serial, so virtual threads would only lift the bound
+    @Bean(name = "thumbnailExecutor")
+    public Executor thumbnailExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(thumbnailThreads);
+        executor.setMaxPoolSize(thumbnailThreads);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("thumbnail-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Imports run one at a time; each already writes in large batches
+    @Bean(name = "importExecutor")
+    public Executor importExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("import-");
+        executor.initialize();
+        return executor;
+    }
+}
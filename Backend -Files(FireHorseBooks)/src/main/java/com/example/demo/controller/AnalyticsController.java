@@ -0,0 +1,47 @@
+package com.example.demo.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import com.example.demo.service.SalesAnalyticsService;
+
+// Answered from in-memory counters; nothing here queries orders
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+
+    // e.g. /bestsellers?window=7d&limit=10, or &by=revenue
+    @GetMapping("/bestsellers")
+    public ResponseEntity<?> bestsellers(
+            @RequestParam(defaultValue = "7d") String window,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "units") String by) {
+        try {
+            return ResponseEntity.ok(salesAnalyticsService.bestsellers(window, limit, by.equalsIgnoreCase("revenue")));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/revenue")
+    public ResponseEntity<?> revenue(@RequestParam(defaultValue = "7d") String window) {
+        try {
+            return ResponseEntity.ok(salesAnalyticsService.revenue(window));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/revenue/books/{bookId}")
+    public ResponseEntity<?> bookRevenue(@PathVariable Long bookId,
+            @RequestParam(defaultValue = "7d") String window) {
+        try {
+            return ResponseEntity.ok(salesAnalyticsService.bookSales(bookId, window));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
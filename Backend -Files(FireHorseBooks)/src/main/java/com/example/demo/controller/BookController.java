@@ -1,44 +1,179 @@
 package com.example.demo.controller;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.demo.dto.BookSlice;
+import com.example.demo.dto.BookSummary;
+import com.example.demo.dto.FacetQuery;
+import com.example.demo.dto.FacetResult;
+import com.example.demo.dto.ImageMetadata;
+import com.example.demo.dto.SearchResult;
+import com.example.demo.dto.Suggestion;
 import com.example.demo.entity.Book;
+import com.example.demo.service.BookImageService;
 import com.example.demo.service.BookService;
+import com.example.demo.service.CatalogExportService;
 
 @RestController
 @RequestMapping("/api/books")
 public class BookController {
 
+    private static final CacheControl IMAGE_CACHE_CONTROL =
+            CacheControl.maxAge(Duration.ofDays(7)).cachePublic();
+
     @Autowired
     private BookService bookService;
 
+    @Autowired
+    private BookImageService bookImageService;
+
+    @Autowired
+    private CatalogExportService catalogExportService;
+
     @GetMapping("/all")
-    public List<Book> getAllBooks() {
+    public List<BookSummary> getAllBooks() {
         return bookService.getAllBooks();
     }
 
+    @GetMapping
+    public ResponseEntity<?> getCatalogPage(
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            BookSlice slice = bookService.getCatalogPage(sort, cursor, size);
+            return ResponseEntity.ok(slice);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Partner feed: the whole catalog as NDJSON (default) or CSV, streamed
+     * from a database cursor. Gzipped when the client accepts it.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCatalog(
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        String exportFormat;
+        try {
+            exportFormat = CatalogExportService.normalizeFormat(format);
+        } catch (IllegalArgumentException e) {
+            byte[] message = e.getMessage().getBytes(StandardCharsets.UTF_8);
+            return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(out -> out.write(message));
+        }
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        StreamingResponseBody body = out -> {
+            // syncFlush so every flush of the exporter reaches the client
+            OutputStream target = gzip ? new GZIPOutputStream(out, 8192, true) : out;
+            catalogExportService.export(exportFormat, target);
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(exportFormat.equals(CatalogExportService.CSV)
+                        ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"catalog." + exportFormat + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Book> getBookById(@PathVariable Long id) {
-        Book book = bookService.getBookById(id);
-        if (book == null) {
+    public ResponseEntity<BookSummary> getBookById(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(bookService.getBookSummary(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/{id}/image")
+    public ResponseEntity<StreamingResponseBody> getBookImage(
+            @PathVariable Long id,
+            @RequestHeader HttpHeaders requestHeaders) {
+        ImageMetadata image = bookImageService.getImageMetadata(id);
+        if (image == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(book);
+
+        List<String> ifNoneMatch = requestHeaders.getIfNoneMatch();
+        if (ifNoneMatch.contains(image.getEtag()) || ifNoneMatch.contains("*")) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(image.getEtag())
+                    .cacheControl(IMAGE_CACHE_CONTROL)
+                    .build();
+        }
+
+        long length = image.getLength();
+        long start = 0;
+        long end = length - 1;
+        boolean partial = false;
+
+        // If-Range only allows a partial response for the current version
+        String ifRange = requestHeaders.getFirst(HttpHeaders.IF_RANGE);
+        if (ifRange == null || ifRange.equals(image.getEtag())) {
+            try {
+                List<HttpRange> ranges = requestHeaders.getRange();
+                // Multipart byteranges are not supported; fall back to the full image
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    if (start >= length || end < start) {
+                        throw new IllegalArgumentException("Range not satisfiable");
+                    }
+                    partial = true;
+                }
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                        .build();
+            }
+        }
+
+        long rangeStart = start;
+        long count = end - start + 1;
+        StreamingResponseBody body = out -> bookImageService.writeImage(image.getKey(), rangeStart, count, out);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity
+                .status(partial ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK)
+                .contentType(MediaType.parseMediaType(image.getContentType()))
+                .contentLength(count)
+                .eTag(image.getEtag())
+                .cacheControl(IMAGE_CACHE_CONTROL)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (partial) {
+            response.header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        return response.body(body);
     }
 
     @PostMapping("/addBook")
@@ -75,9 +210,42 @@ public class BookController {
     }
 
     @GetMapping("/search")
-    public List<Book> searchBooks(
-            @RequestParam(required = false) String q) {
-        return bookService.searchBooks(q);
+    public ResponseEntity<?> searchBooks(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        try {
+            SearchResult result = bookService.searchBooks(q, page, size);
+            return ResponseEntity.ok()
+                    .header("X-Total-Count", String.valueOf(result.getTotal()))
+                    .body(result.getItems());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/browse")
+    public ResponseEntity<?> browse(
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) List<String> author,
+            @RequestParam(required = false) List<String> price,
+            @RequestParam(defaultValue = "false") boolean inStock,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        try {
+            FacetQuery query = new FacetQuery(category, author, price, inStock);
+            FacetResult result = bookService.browse(query, page, size);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/suggest")
+    public List<Suggestion> suggest(
+            @RequestParam(defaultValue = "") String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return bookService.suggest(prefix, limit);
     }
 
     @DeleteMapping("/{id}")
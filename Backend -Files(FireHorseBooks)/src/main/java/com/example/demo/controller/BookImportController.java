@@ -0,0 +1,53 @@
+package com.example.demo.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.entity.ImportJob;
+import com.example.demo.service.BookImportService;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+@RestController
+@RequestMapping("/api/books/import")
+public class BookImportController {
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    /**
+     * Takes the catalog file as the raw request body (not multipart), so
+     * it is streamed to disk rather than buffered. The import runs in the
+     * background; poll the returned job for progress.
+     */
+    @PostMapping
+    public ResponseEntity<?> importCatalog(@RequestParam String format, HttpServletRequest request) {
+        try (InputStream body = request.getInputStream()) {
+            ImportJob job = bookImportService.submit(body, format);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Import upload failed: " + e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> getImportJob(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(bookImportService.getJob(jobId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
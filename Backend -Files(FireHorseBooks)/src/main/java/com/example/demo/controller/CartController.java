@@ -4,6 +4,8 @@ import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import com.example.demo.dto.CartLineView;
+import com.example.demo.dto.CartOperation;
 import com.example.demo.entity.CartItem;
 import com.example.demo.service.CartService;
 
@@ -27,8 +29,20 @@ public class CartController {
         }
     }
 
+    // Many add/set/remove operations in one request, e.g. merging a guest cart after login
+    @PostMapping("/batch")
+    public ResponseEntity<?> applyBatch(
+            @RequestParam Long userId,
+            @RequestBody List<CartOperation> operations) {
+        try {
+            return ResponseEntity.ok(cartService.applyBatch(userId, operations));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/user/{userId}")
-    public List<CartItem> getCartByUser(@PathVariable Long userId) {
+    public List<CartLineView> getCartByUser(@PathVariable Long userId) {
         return cartService.getCartByUser(userId);
     }
 
@@ -0,0 +1,64 @@
+package com.example.demo.controller;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.example.demo.service.ImageStore;
+
+/**
+ * Serves generated thumbnails by content hash. The key changes whenever the
+ * content does, so responses can be cached forever.
+ */
+@RestController
+@RequestMapping("/api/images")
+public class ImageController {
+
+    private static final CacheControl THUMBNAIL_CACHE_CONTROL =
+            CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @GetMapping("/{key:[0-9a-f]{64}}.jpg")
+    public ResponseEntity<StreamingResponseBody> getThumbnail(
+            @PathVariable String key,
+            @RequestHeader HttpHeaders requestHeaders) throws IOException {
+        if (!imageStore.exists(key)) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = "\"" + key + "\"";
+        List<String> ifNoneMatch = requestHeaders.getIfNoneMatch();
+        if (ifNoneMatch.contains(etag) || ifNoneMatch.contains("*")) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(THUMBNAIL_CACHE_CONTROL)
+                    .build();
+        }
+        long length = imageStore.size(key);
+        StreamingResponseBody body = out -> {
+            imageStore.transferTo(key, 0, length, Channels.newChannel(out));
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_JPEG)
+                .contentLength(length)
+                .eTag(etag)
+                .cacheControl(THUMBNAIL_CACHE_CONTROL)
+                .body(body);
+    }
+}
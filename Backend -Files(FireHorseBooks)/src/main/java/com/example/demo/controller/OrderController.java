@@ -1,9 +1,14 @@
 package com.example.demo.controller;
 
-import java.util.List;
+import java.net.URI;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import com.example.demo.entity.Order;
+import com.example.demo.dto.OrderHistorySlice;
+import com.example.demo.dto.OrderRequest;
+import com.example.demo.service.OrderIntakeService;
 import com.example.demo.service.OrderService;
 
 @RestController
@@ -13,13 +18,45 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private OrderIntakeService orderIntakeService;
+
+    // Queued checkouts answer 202 with the request to poll; repeating a call with the
+    // same Idempotency-Key returns the same request instead of a second order
     @PostMapping("/place/{userId}")
-    public Order placeOrder(@PathVariable Long userId) {
-        return orderService.placeOrder(userId);
+    public ResponseEntity<?> placeOrder(@PathVariable Long userId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (!orderIntakeService.isEnabled()) {
+            return ResponseEntity.ok(orderService.placeOrder(userId));
+        }
+        try {
+            OrderRequest request = orderIntakeService.submit(userId, idempotencyKey);
+            return ResponseEntity.status(request.isDone() ? HttpStatus.OK : HttpStatus.ACCEPTED)
+                    .location(URI.create("/api/orders/" + request.getId() + "/status"))
+                    .body(request);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/{requestId}/status")
+    public ResponseEntity<OrderRequest> getOrderStatus(@PathVariable String requestId) {
+        OrderRequest request = orderIntakeService.getStatus(requestId);
+        return request == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(request);
     }
 
     @GetMapping("/user/{userId}")
-    public List<Order> getOrders(@PathVariable Long userId) {
-        return orderService.getOrdersByUser(userId);
+    public ResponseEntity<?> getOrders(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            OrderHistorySlice slice = orderService.getOrderHistory(userId, cursor, size);
+            return ResponseEntity.ok(slice);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
-}
\ No newline at end of file
+}
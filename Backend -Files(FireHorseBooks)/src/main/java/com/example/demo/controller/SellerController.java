@@ -0,0 +1,21 @@
+package com.example.demo.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import com.example.demo.dto.SellerDashboard;
+import com.example.demo.service.CatalogStatsService;
+
+@RestController
+@RequestMapping("/api/seller")
+public class SellerController {
+
+    @Autowired
+    private CatalogStatsService catalogStatsService;
+
+    // Stock and sales totals, per category, top sellers and low stock, from the stats tables
+    @GetMapping("/dashboard")
+    public ResponseEntity<SellerDashboard> dashboard() {
+        return ResponseEntity.ok(catalogStatsService.dashboard());
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+
+/** Units sold and revenue of one book over an analytics window. */
+public class BookSales {
+
+    private final Long bookId;
+    private final long units;
+    private final BigDecimal revenue;
+
+    public BookSales(Long bookId, long units, BigDecimal revenue) {
+        this.bookId = bookId;
+        this.units = units;
+        this.revenue = revenue;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+}
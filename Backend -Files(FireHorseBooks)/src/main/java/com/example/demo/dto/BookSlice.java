@@ -0,0 +1,47 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated catalog listing. Pass {@code nextCursor}
+ * back as {@code cursor} to fetch the following page.
+ */
+public class BookSlice {
+
+    private List<BookSummary> items;
+    private String nextCursor;
+    private boolean hasNext;
+
+    public BookSlice() {
+    }
+
+    public BookSlice(List<BookSummary> items, String nextCursor, boolean hasNext) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+
+    public List<BookSummary> getItems() {
+        return items;
+    }
+
+    public void setItems(List<BookSummary> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+}
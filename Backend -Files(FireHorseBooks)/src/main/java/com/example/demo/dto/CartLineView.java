@@ -0,0 +1,69 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * One cart line with the book fields the cart page shows, read in a single
+ * joined query instead of loading each line's {@code Book} entity.
+ */
+public class CartLineView {
+
+    private final Long id;
+    private final Long bookId;
+    private final String title;
+    private final String author;
+    private final BigDecimal price;
+    private final Integer stock;
+    private final String imageUrl;
+    private final boolean hasImage;
+    private final Integer quantity;
+
+    public CartLineView(Long id, Long bookId, String title, String author, BigDecimal price,
+            Integer stock, String imageUrl, boolean hasImage, Integer quantity) {
+        this.id = id;
+        this.bookId = bookId;
+        this.title = title;
+        this.author = author;
+        this.price = price;
+        this.stock = stock;
+        this.imageUrl = imageUrl;
+        this.hasImage = hasImage;
+        this.quantity = quantity;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public Integer getStock() {
+        return stock;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public boolean isHasImage() {
+        return hasImage;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.demo.dto;
+
+/**
+ * One entry of a batched cart change. {@code op} is {@code add} (increase
+ * by quantity), {@code set} (replace the quantity; 0 removes the line) or
+ * {@code remove}.
+ */
+public class CartOperation {
+
+    private String op;
+    private Long bookId;
+    private Integer quantity;
+
+    public CartOperation() {
+    }
+
+    public CartOperation(String op, Long bookId, Integer quantity) {
+        this.op = op;
+        this.bookId = bookId;
+        this.quantity = quantity;
+    }
+
+    public String getOp() {
+        return op;
+    }
+
+    public void setOp(String op) {
+        this.op = op;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(Long bookId) {
+        this.bookId = bookId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+}
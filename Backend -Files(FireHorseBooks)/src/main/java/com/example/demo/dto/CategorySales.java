@@ -0,0 +1,29 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+
+/** Units sold and revenue of one category over an analytics window. */
+public class CategorySales {
+
+    private final String category;
+    private final long units;
+    private final BigDecimal revenue;
+
+    public CategorySales(String category, long units, BigDecimal revenue) {
+        this.category = category;
+        this.units = units;
+        this.revenue = revenue;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+}
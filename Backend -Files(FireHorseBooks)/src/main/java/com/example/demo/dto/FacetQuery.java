@@ -0,0 +1,42 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+/**
+ * Filters for a faceted catalog query. Values within one dimension are
+ * OR-ed; dimensions are AND-ed. Empty lists mean "no filter".
+ */
+public class FacetQuery {
+
+    private List<String> categories = List.of();
+    private List<String> authors = List.of();
+    private List<String> priceRanges = List.of();
+    private boolean inStockOnly;
+
+    public FacetQuery() {
+    }
+
+    public FacetQuery(List<String> categories, List<String> authors, List<String> priceRanges,
+            boolean inStockOnly) {
+        this.categories = categories == null ? List.of() : categories;
+        this.authors = authors == null ? List.of() : authors;
+        this.priceRanges = priceRanges == null ? List.of() : priceRanges;
+        this.inStockOnly = inStockOnly;
+    }
+
+    public List<String> getCategories() {
+        return categories;
+    }
+
+    public List<String> getAuthors() {
+        return authors;
+    }
+
+    public List<String> getPriceRanges() {
+        return priceRanges;
+    }
+
+    public boolean isInStockOnly() {
+        return inStockOnly;
+    }
+}
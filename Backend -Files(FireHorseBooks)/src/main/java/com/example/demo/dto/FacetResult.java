@@ -0,0 +1,33 @@
+package com.example.demo.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of books matching a {@link FacetQuery}, plus the number of
+ * matching books for every value of every facet.
+ */
+public class FacetResult {
+
+    private final List<BookSummary> items;
+    private final long total;
+    private final Map<String, Map<String, Long>> facets;
+
+    public FacetResult(List<BookSummary> items, long total, Map<String, Map<String, Long>> facets) {
+        this.items = items;
+        this.total = total;
+        this.facets = facets;
+    }
+
+    public List<BookSummary> getItems() {
+        return items;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public Map<String, Map<String, Long>> getFacets() {
+        return facets;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.demo.dto;
+
+/**
+ * Headers needed to answer an image request without reading the image bytes.
+ */
+public class ImageMetadata {
+
+    private final String key;
+    private final long length;
+    private final String contentType;
+    private final String etag;
+
+    public ImageMetadata(String key, long length, String contentType, String etag) {
+        this.key = key;
+        this.length = length;
+        this.contentType = contentType;
+        this.etag = etag;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+}
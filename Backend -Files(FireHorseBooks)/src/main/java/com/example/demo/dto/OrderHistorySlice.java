@@ -0,0 +1,47 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+/**
+ * One page of a user's order history, newest first. Pass {@code nextCursor}
+ * back as {@code cursor} to fetch older orders.
+ */
+public class OrderHistorySlice {
+
+    private List<OrderSummaryView> items;
+    private String nextCursor;
+    private boolean hasNext;
+
+    public OrderHistorySlice() {
+    }
+
+    public OrderHistorySlice(List<OrderSummaryView> items, String nextCursor, boolean hasNext) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+
+    public List<OrderSummaryView> getItems() {
+        return items;
+    }
+
+    public void setItems(List<OrderSummaryView> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+}
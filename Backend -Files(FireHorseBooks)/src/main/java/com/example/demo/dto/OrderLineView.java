@@ -0,0 +1,44 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * An order line as stored at checkout. Title and price are copies taken
+ * when the order was placed, so the book row is not needed to show it.
+ */
+public class OrderLineView {
+
+    private final Long orderId;
+    private final Long bookId;
+    private final String title;
+    private final BigDecimal price;
+    private final Integer quantity;
+
+    public OrderLineView(Long orderId, Long bookId, String title, BigDecimal price, Integer quantity) {
+        this.orderId = orderId;
+        this.bookId = bookId;
+        this.title = title;
+        this.price = price;
+        this.quantity = quantity;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+}
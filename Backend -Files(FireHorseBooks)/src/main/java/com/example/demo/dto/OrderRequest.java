@@ -0,0 +1,78 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A checkout accepted by the order intake and its progress: queued, then
+ * processing, then placed (with the order id) or rejected (with the
+ * reason, e.g. an empty cart or a book out of stock).
+ */
+public class OrderRequest {
+
+    public static final String QUEUED = "queued";
+    public static final String PROCESSING = "processing";
+    public static final String PLACED = "placed";
+    public static final String REJECTED = "rejected";
+
+    private final String id;
+    private final Long userId;
+    private final LocalDateTime acceptedAt;
+    private volatile String status = QUEUED;
+    private volatile Long orderId;
+    private volatile String error;
+    private volatile LocalDateTime completedAt;
+
+    public OrderRequest(String id, Long userId, LocalDateTime acceptedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.acceptedAt = acceptedAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public LocalDateTime getAcceptedAt() {
+        return acceptedAt;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public boolean isDone() {
+        return PLACED.equals(status) || REJECTED.equals(status);
+    }
+
+    public void processing() {
+        status = PROCESSING;
+    }
+
+    public void placed(Long orderId) {
+        this.orderId = orderId;
+        this.completedAt = LocalDateTime.now();
+        this.status = PLACED;
+    }
+
+    public void rejected(String error) {
+        this.error = error;
+        this.completedAt = LocalDateTime.now();
+        this.status = REJECTED;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An order for the history page. Filled from two queries (orders, then all
+ * of their lines at once) rather than walking the entity graph.
+ */
+public class OrderSummaryView {
+
+    private final Long id;
+    private final LocalDate orderDate;
+    private final BigDecimal totalAmount;
+    private final String status;
+    private final LocalDateTime createdAt;
+    private final List<OrderLineView> items = new ArrayList<>();
+
+    public OrderSummaryView(Long id, LocalDate orderDate, BigDecimal totalAmount, String status,
+            LocalDateTime createdAt) {
+        this.id = id;
+        this.orderDate = orderDate;
+        this.totalAmount = totalAmount;
+        this.status = status;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDate getOrderDate() {
+        return orderDate;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public List<OrderLineView> getItems() {
+        return items;
+    }
+}
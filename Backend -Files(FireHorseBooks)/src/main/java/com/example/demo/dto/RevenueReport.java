@@ -0,0 +1,36 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/** Store revenue over an analytics window, with the categories it came from. */
+public class RevenueReport {
+
+    private final String window;
+    private final long units;
+    private final BigDecimal revenue;
+    private final List<CategorySales> categories;
+
+    public RevenueReport(String window, long units, BigDecimal revenue, List<CategorySales> categories) {
+        this.window = window;
+        this.units = units;
+        this.revenue = revenue;
+        this.categories = categories;
+    }
+
+    public String getWindow() {
+        return window;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public List<CategorySales> getCategories() {
+        return categories;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+/**
+ * One page of search results in relevance order, with the total hit count.
+ */
+public class SearchResult {
+
+    private final List<BookSummary> items;
+    private final long total;
+
+    public SearchResult(List<BookSummary> items, long total) {
+        this.items = items;
+        this.total = total;
+    }
+
+    public List<BookSummary> getItems() {
+        return items;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import com.example.demo.entity.BookStats;
+import com.example.demo.entity.CategoryStats;
+
+/** Everything the seller dashboard shows, read from the stats tables. */
+public class SellerDashboard {
+
+    private final long books;
+    private final long stockUnits;
+    private final BigDecimal stockValue;
+    private final long unitsSold;
+    private final BigDecimal revenue;
+    private final List<CategoryStats> categories;
+    private final List<BookStats> topSellers;
+    private final List<BookStats> lowStock;
+
+    public SellerDashboard(long books, long stockUnits, BigDecimal stockValue, long unitsSold, BigDecimal revenue,
+            List<CategoryStats> categories, List<BookStats> topSellers, List<BookStats> lowStock) {
+        this.books = books;
+        this.stockUnits = stockUnits;
+        this.stockValue = stockValue;
+        this.unitsSold = unitsSold;
+        this.revenue = revenue;
+        this.categories = categories;
+        this.topSellers = topSellers;
+        this.lowStock = lowStock;
+    }
+
+    public long getBooks() {
+        return books;
+    }
+
+    public long getStockUnits() {
+        return stockUnits;
+    }
+
+    public BigDecimal getStockValue() {
+        return stockValue;
+    }
+
+    public long getUnitsSold() {
+        return unitsSold;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public List<CategoryStats> getCategories() {
+        return categories;
+    }
+
+    public List<BookStats> getTopSellers() {
+        return topSellers;
+    }
+
+    public List<BookStats> getLowStock() {
+        return lowStock;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.demo.dto;
+
+/**
+ * A typeahead completion: a title, author or category, ranked by sales.
+ * {@code bookId} is set for title suggestions only.
+ */
+public class Suggestion {
+
+    private final String text;
+    private final String type;
+    private final Long bookId;
+    private final long score;
+
+    public Suggestion(String text, String type, Long bookId, long score) {
+        this.text = text;
+        this.type = type;
+        this.bookId = bookId;
+        this.score = score;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public long getScore() {
+        return score;
+    }
+}
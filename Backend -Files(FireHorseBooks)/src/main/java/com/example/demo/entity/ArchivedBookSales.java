@@ -0,0 +1,48 @@
+package com.example.demo.entity;
+
+import java.math.BigDecimal;
+import jakarta.persistence.*;
+
+/**
+ * Units and revenue of one book from orders that were archived. Whatever
+ * summed {@code order_items} per book adds these, so archiving an order
+ * does not change a book's sales.
+ */
+@Entity
+@Table(name = "archived_book_sales")
+public class ArchivedBookSales {
+
+    @Id
+    @Column(name = "book_id")
+    private Long bookId;
+
+    @Column(nullable = false)
+    private long units;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(Long bookId) {
+        this.bookId = bookId;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public void setUnits(long units) {
+        this.units = units;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+}
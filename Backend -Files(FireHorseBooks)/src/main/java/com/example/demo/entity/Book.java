@@ -2,13 +2,23 @@ package com.example.demo.entity;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "books")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "books")
+@Table(name = "books", indexes = {
+        @Index(name = "idx_books_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_books_price_id", columnList = "price, id"),
+        @Index(name = "idx_books_title_id", columnList = "title, id"),
+        @Index(name = "idx_books_isbn", columnList = "isbn")
+})
 public class Book {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledTableId("books")
     private Long id;
 
     @Column(nullable = false)
@@ -30,13 +40,21 @@ public class Book {
     @Column(columnDefinition = "TEXT")
     private String description;
 
-    @Lob
-    @Column(columnDefinition = "LONGBLOB")
-    private byte[] image;
-
     @Column(name = "image_url")
     private String imageUrl;
 
+    // Optional; bulk imports use it to recognise books already in the catalog
+    @Column(length = 13)
+    private String isbn;
+
+    // Bumped by every write, including the conditional stock updates in
+    // StockReservationService, so a stale entity save fails instead of
+    // overwriting stock taken by concurrent orders
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
@@ -102,14 +120,6 @@ public class Book {
         this.description = description;
     }
 
-    public byte[] getImage() {
-        return image;
-    }
-
-    public void setImage(byte[] image) {
-        this.image = image;
-    }
-
     public String getImageUrl() {
         return imageUrl;
     }
@@ -118,6 +128,22 @@ public class Book {
         this.imageUrl = imageUrl;
     }
 
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public void setIsbn(String isbn) {
+        this.isbn = isbn;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -4,10 +4,13 @@ import java.time.LocalDateTime;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "cart_items")
+@Table(name = "cart_items", uniqueConstraints = {
+        // One line per book in a cart; also the index behind every per-user lookup
+        @UniqueConstraint(name = "uk_cart_items_user_book", columnNames = { "user_id", "book_id" })
+})
 public class CartItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledTableId("cart_items")
     private Long id;
 
     @Column(name = "user_id", nullable = false)
@@ -0,0 +1,79 @@
+package com.example.demo.entity;
+
+import java.math.BigDecimal;
+import jakarta.persistence.*;
+
+/**
+ * Totals of the books in one category, kept current alongside
+ * {@link BookStats}. Sales stay counted after a book is deleted.
+ */
+@Entity
+@Table(name = "category_stats")
+public class CategoryStats {
+
+    @Id
+    private String category;
+
+    @Column(nullable = false)
+    private long books;
+
+    @Column(name = "stock_units", nullable = false)
+    private long stockUnits;
+
+    @Column(name = "stock_value", nullable = false, precision = 16, scale = 2)
+    private BigDecimal stockValue;
+
+    @Column(name = "units_sold", nullable = false)
+    private long unitsSold;
+
+    @Column(nullable = false, precision = 16, scale = 2)
+    private BigDecimal revenue;
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public long getBooks() {
+        return books;
+    }
+
+    public void setBooks(long books) {
+        this.books = books;
+    }
+
+    public long getStockUnits() {
+        return stockUnits;
+    }
+
+    public void setStockUnits(long stockUnits) {
+        this.stockUnits = stockUnits;
+    }
+
+    public BigDecimal getStockValue() {
+        return stockValue;
+    }
+
+    public void setStockValue(BigDecimal stockValue) {
+        this.stockValue = stockValue;
+    }
+
+    public long getUnitsSold() {
+        return unitsSold;
+    }
+
+    public void setUnitsSold(long unitsSold) {
+        this.unitsSold = unitsSold;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+}
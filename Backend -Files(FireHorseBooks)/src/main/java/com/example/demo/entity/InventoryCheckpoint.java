@@ -0,0 +1,45 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Last inventory journal segment whose stock values have been written to
+ * {@code books}. Updated in the same transaction as those values, so a
+ * restart knows exactly which segments still need replaying. Single row.
+ */
+@Entity
+@Table(name = "inventory_checkpoints")
+public class InventoryCheckpoint {
+
+    public static final Long ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long segment;
+
+    public InventoryCheckpoint() {
+    }
+
+    public InventoryCheckpoint(Long segment) {
+        this.id = ID;
+        this.segment = segment;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getSegment() {
+        return segment;
+    }
+
+    public void setSegment(Long segment) {
+        this.segment = segment;
+    }
+}
@@ -8,10 +8,16 @@ import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_orders_request_id", columnNames = "request_id")
+}, indexes = {
+        // Order history seeks on it; the archive job walks created_at
+        @Index(name = "idx_orders_user_created", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_orders_created", columnList = "created_at, id")
+})
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledTableId("orders")
     private Long id;
 
     @Column(name = "user_id", nullable = false)
@@ -33,6 +39,11 @@ public class Order {
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
+    // Checkout request that produced this order (see OrderIntakeService); unique so
+    // a replayed request can never place a second order
+    @Column(name = "request_id", length = 36, updatable = false)
+    private String requestId;
+
     public Order() {
     }
 
@@ -92,6 +103,14 @@ public class Order {
         this.createdAt = createdAt;
     }
 
+    public String getRequestId() {
+        return requestId;
+    }
+
+    public void setRequestId(String requestId) {
+        this.requestId = requestId;
+    }
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,22 @@
+package com.example.demo.entity;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.hibernate.annotations.IdGeneratorType;
+
+/**
+ * Generates ids from a row in the {@code id_generators} table, handing out
+ * blocks of {@code books.ids.allocation-size} ids per database round trip.
+ * Unlike IDENTITY columns the id is known before the INSERT, so Hibernate
+ * can batch inserts.
+ */
+@IdGeneratorType(PooledTableIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.FIELD, ElementType.METHOD })
+public @interface PooledTableId {
+
+    /** Row name in {@code id_generators}; by convention the entity's table. */
+    String value();
+}
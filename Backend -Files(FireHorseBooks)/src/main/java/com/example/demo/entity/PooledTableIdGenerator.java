@@ -0,0 +1,49 @@
+package com.example.demo.entity;
+
+import java.util.Properties;
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.OptimizableGenerator;
+import org.hibernate.id.enhanced.TableGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * Table-based hi/lo generator behind {@link PooledTableId}. Uses the
+ * pooled-lo optimizer: each round trip reserves the next block of
+ * allocation-size ids, and the stored value is the highest id reserved so
+ * far (Hibernate's default {@code hibernate.id.generator.stored_last_used}).
+ * It is not the last id handed out; the next block starts one above it and
+ * ids below it may still be waiting, unused, in a running instance's block.
+ * Never lower the row by hand, not even to the largest id in the table.
+ * Because the row records a position rather than a block number, the
+ * allocation size can be changed between deployments.
+ */
+public class PooledTableIdGenerator extends TableGenerator {
+
+    public static final String TABLE = "id_generators";
+    public static final String SEGMENT_COLUMN = "entity";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final String ALLOCATION_SIZE_SETTING = "books.ids.allocation-size";
+
+    private final String segment;
+
+    public PooledTableIdGenerator(PooledTableId config) {
+        this.segment = config.value();
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry)
+            throws MappingException {
+        int allocationSize = serviceRegistry.requireService(ConfigurationService.class)
+                .getSetting(ALLOCATION_SIZE_SETTING, StandardConverters.INTEGER, 50);
+        parameters.setProperty(TABLE_PARAM, TABLE);
+        parameters.setProperty(SEGMENT_COLUMN_PARAM, SEGMENT_COLUMN);
+        parameters.setProperty(VALUE_COLUMN_PARAM, VALUE_COLUMN);
+        parameters.setProperty(SEGMENT_VALUE_PARAM, segment);
+        parameters.setProperty(OptimizableGenerator.INCREMENT_PARAM, String.valueOf(allocationSize));
+        parameters.setProperty(OptimizableGenerator.OPT_PARAM, "pooled-lo");
+        super.configure(type, parameters, serviceRegistry);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.demo.event;
+
+import java.math.BigDecimal;
+
+/**
+ * A book was added to the catalog.
+ */
+public class BookAdded {
+
+    private Long bookId;
+    private String title;
+    private String author;
+    private String category;
+    private BigDecimal price;
+    private Integer stock;
+
+    public BookAdded() {
+    }
+
+    public BookAdded(Long bookId, String title, String author, String category, BigDecimal price, Integer stock) {
+        this.bookId = bookId;
+        this.title = title;
+        this.author = author;
+        this.category = category;
+        this.price = price;
+        this.stock = stock;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(Long bookId) {
+        this.bookId = bookId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public void setAuthor(String author) {
+        this.author = author;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public Integer getStock() {
+        return stock;
+    }
+
+    public void setStock(Integer stock) {
+        this.stock = stock;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.demo.event;
+
+/**
+ * A book was removed from the catalog.
+ */
+public class BookDeleted {
+
+    private Long bookId;
+
+    public BookDeleted() {
+    }
+
+    public BookDeleted(Long bookId) {
+        this.bookId = bookId;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(Long bookId) {
+        this.bookId = bookId;
+    }
+}
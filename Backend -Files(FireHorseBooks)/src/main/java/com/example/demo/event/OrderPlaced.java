@@ -0,0 +1,118 @@
+package com.example.demo.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * An order was placed. Lines carry what was bought at the price paid, so
+ * consumers need not read the order back.
+ */
+public class OrderPlaced {
+
+    private Long orderId;
+    private Long userId;
+    private BigDecimal totalAmount;
+    private LocalDateTime placedAt;
+    private List<Line> lines;
+
+    public OrderPlaced() {
+    }
+
+    public OrderPlaced(Long orderId, Long userId, BigDecimal totalAmount, LocalDateTime placedAt, List<Line> lines) {
+        this.orderId = orderId;
+        this.userId = userId;
+        this.totalAmount = totalAmount;
+        this.placedAt = placedAt;
+        this.lines = lines;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public LocalDateTime getPlacedAt() {
+        return placedAt;
+    }
+
+    public void setPlacedAt(LocalDateTime placedAt) {
+        this.placedAt = placedAt;
+    }
+
+    public List<Line> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<Line> lines) {
+        this.lines = lines;
+    }
+
+    public static class Line {
+        private Long bookId;
+        private String category;
+        private int quantity;
+        private BigDecimal price;
+
+        public Line() {
+        }
+
+        public Line(Long bookId, String category, int quantity, BigDecimal price) {
+            this.bookId = bookId;
+            this.category = category;
+            this.quantity = quantity;
+            this.price = price;
+        }
+
+        public Long getBookId() {
+            return bookId;
+        }
+
+        public void setBookId(Long bookId) {
+            this.bookId = bookId;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public void setCategory(String category) {
+            this.category = category;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        public void setPrice(BigDecimal price) {
+            this.price = price;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.demo.event;
+
+/**
+ * The stock of a book changed, by an order or by an explicit update.
+ * {@code stock} is the value after the change, so applying the event twice
+ * is harmless.
+ */
+public class StockChanged {
+
+    private Long bookId;
+    private Integer stock;
+
+    public StockChanged() {
+    }
+
+    public StockChanged(Long bookId, Integer stock) {
+        this.bookId = bookId;
+        this.stock = stock;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(Long bookId) {
+        this.bookId = bookId;
+    }
+
+    public Integer getStock() {
+        return stock;
+    }
+
+    public void setStock(Integer stock) {
+        this.stock = stock;
+    }
+}
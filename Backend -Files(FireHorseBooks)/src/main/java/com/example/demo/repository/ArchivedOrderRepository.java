@@ -0,0 +1,23 @@
+package com.example.demo.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import com.example.demo.entity.ArchivedOrder;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    // Same order and cursor as OrderRepository.findHistory, on idx_orders_archive_user_created
+    @Query("SELECT a FROM ArchivedOrder a WHERE a.userId = :userId ORDER BY a.createdAt DESC, a.id DESC")
+    List<ArchivedOrder> findHistory(@Param("userId") Long userId, Limit limit);
+
+    @Query("SELECT a FROM ArchivedOrder a WHERE a.userId = :userId AND (a.createdAt < :createdAt " +
+            "OR (a.createdAt = :createdAt AND a.id < :id)) ORDER BY a.createdAt DESC, a.id DESC")
+    List<ArchivedOrder> findHistoryBefore(@Param("userId") Long userId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+}
@@ -0,0 +1,11 @@
+package com.example.demo.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import com.example.demo.entity.BookImage;
+
+@Repository
+public interface BookImageRepository extends JpaRepository<BookImage, Long> {
+
+    long countByChecksum(String checksum);
+}
@@ -1,19 +1,99 @@
 package com.example.demo.repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import com.example.demo.dto.BookSummary;
 import com.example.demo.entity.Book;
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
 
-    // Search books by title, author, or category
-    @Query("SELECT b FROM Book b WHERE " +
-            "LOWER(b.title) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-            "LOWER(b.author) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-            "LOWER(b.category) LIKE LOWER(CONCAT('%', :query, '%'))")
-    List<Book> searchBooks(@Param("query") String query);
-}
\ No newline at end of file
+    String SUMMARY_SELECT = "SELECT new com.example.demo.dto.BookSummary(" +
+            "b.id, b.title, b.author, b.price, b.category, b.stock, b.description, b.imageUrl, " +
+            "CASE WHEN i.bookId IS NULL THEN false ELSE true END, b.createdAt, b.updatedAt) " +
+            "FROM Book b LEFT JOIN BookImage i ON i.bookId = b.id";
+
+    // Catalog listings never select the image column
+    @Query(SUMMARY_SELECT)
+    List<BookSummary> findAllSummaries();
+
+    @Query(SUMMARY_SELECT + " WHERE b.id = :id")
+    Optional<BookSummary> findSummaryById(@Param("id") Long id);
+
+    // Search result pages repeat for popular queries; Hibernate drops these
+    // entries whenever books or book_images change
+    @Query(SUMMARY_SELECT + " WHERE b.id IN :ids")
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "catalog-queries")
+    })
+    List<BookSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    // [id, stock] pairs
+    @Query("SELECT b.id, b.stock FROM Book b WHERE b.id IN :ids")
+    List<Object[]> findStockByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT b.id FROM Book b WHERE b.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT b.isbn FROM Book b WHERE b.isbn IN :isbns")
+    List<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
+    // [title, author] of books whose title is one of the given ones (case-insensitive
+    // under the default MySQL collation, so callers compare authors the same way)
+    @Query("SELECT b.title, b.author FROM Book b WHERE b.title IN :titles")
+    List<Object[]> findTitleAuthorByTitleIn(@Param("titles") Collection<String> titles);
+
+    // Walks the whole catalog in primary key order, e.g. to rebuild in-memory indexes
+    @Query(SUMMARY_SELECT + " WHERE b.id > :id ORDER BY b.id ASC")
+    List<BookSummary> findPageAfterId(@Param("id") Long id, Limit limit);
+
+    // Keyset pagination: each ordering ends in the id so the cursor is unambiguous
+    @Query(SUMMARY_SELECT + " ORDER BY b.createdAt DESC, b.id DESC")
+    List<BookSummary> findNewest(Limit limit);
+
+    @Query(SUMMARY_SELECT + " WHERE b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id) " +
+            "ORDER BY b.createdAt DESC, b.id DESC")
+    List<BookSummary> findNewestAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+            Limit limit);
+
+    @Query(SUMMARY_SELECT + " ORDER BY b.price ASC, b.id ASC")
+    List<BookSummary> findByPriceAsc(Limit limit);
+
+    @Query(SUMMARY_SELECT + " WHERE b.price > :price OR (b.price = :price AND b.id > :id) " +
+            "ORDER BY b.price ASC, b.id ASC")
+    List<BookSummary> findByPriceAscAfter(@Param("price") BigDecimal price, @Param("id") Long id, Limit limit);
+
+    @Query(SUMMARY_SELECT + " ORDER BY b.price DESC, b.id DESC")
+    List<BookSummary> findByPriceDesc(Limit limit);
+
+    @Query(SUMMARY_SELECT + " WHERE b.price < :price OR (b.price = :price AND b.id < :id) " +
+            "ORDER BY b.price DESC, b.id DESC")
+    List<BookSummary> findByPriceDescAfter(@Param("price") BigDecimal price, @Param("id") Long id, Limit limit);
+
+    @Query(SUMMARY_SELECT + " ORDER BY b.title ASC, b.id ASC")
+    List<BookSummary> findByTitle(Limit limit);
+
+    @Query(SUMMARY_SELECT + " WHERE b.title > :title OR (b.title = :title AND b.id > :id) " +
+            "ORDER BY b.title ASC, b.id ASC")
+    List<BookSummary> findByTitleAfter(@Param("title") String title, @Param("id") Long id, Limit limit);
+
+    long countByImageUrl(String imageUrl);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Book b SET b.imageUrl = :imageUrl WHERE b.id = :id")
+    int updateImageUrl(@Param("id") Long id, @Param("imageUrl") String imageUrl);
+}
@@ -0,0 +1,20 @@
+package com.example.demo.repository;
+
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import com.example.demo.entity.BookStats;
+
+@Repository
+public interface BookStatsRepository extends JpaRepository<BookStats, Long> {
+
+    // Both walk an index from one end
+    @Query("SELECT s FROM BookStats s ORDER BY s.revenue DESC")
+    List<BookStats> findTopSellers(Limit limit);
+
+    @Query("SELECT s FROM BookStats s WHERE s.stock <= :threshold ORDER BY s.stock")
+    List<BookStats> findLowStock(@Param("threshold") int threshold, Limit limit);
+}
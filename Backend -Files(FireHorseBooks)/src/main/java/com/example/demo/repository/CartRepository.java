@@ -1,15 +1,36 @@
 package com.example.demo.repository;
 
+import java.util.Collection;
 import java.util.List;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import com.example.demo.dto.CartLineView;
 import com.example.demo.entity.CartItem;
 
 @Repository
 public interface CartRepository extends JpaRepository<CartItem, Long> {
 
     // ✅ Long userId methods (must match CartItem entity)
+    // Books are fetched in the same statement rather than one select per line
+    @EntityGraph(attributePaths = "book")
     List<CartItem> findByUserId(Long userId);
 
+    @EntityGraph(attributePaths = "book")
+    List<CartItem> findByUserIdIn(Collection<Long> userIds);
+
+    @Query("SELECT new com.example.demo.dto.CartLineView(" +
+            "c.id, b.id, b.title, b.author, b.price, b.stock, b.imageUrl, " +
+            "CASE WHEN i.bookId IS NULL THEN false ELSE true END, c.quantity) " +
+            "FROM CartItem c JOIN c.book b LEFT JOIN BookImage i ON i.bookId = b.id " +
+            "WHERE c.userId = :userId ORDER BY c.id")
+    List<CartLineView> findLinesByUserId(@Param("userId") Long userId);
+
+    // Current lines as [cartItemId, bookId, quantity], without loading books
+    @Query("SELECT c.id, c.book.id, c.quantity FROM CartItem c WHERE c.userId = :userId")
+    List<Object[]> findQuantitiesByUserId(@Param("userId") Long userId);
+
     CartItem findByUserIdAndBookId(Long userId, Long bookId);
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.example.demo.repository;
+
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import com.example.demo.entity.CategoryStats;
+
+@Repository
+public interface CategoryStatsRepository extends JpaRepository<CategoryStats, String> {
+
+    @Query("SELECT c FROM CategoryStats c ORDER BY c.revenue DESC, c.category")
+    List<CategoryStats> findAllByRevenue();
+}
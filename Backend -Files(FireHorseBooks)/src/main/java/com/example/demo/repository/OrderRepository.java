@@ -1,11 +1,51 @@
 package com.example.demo.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import com.example.demo.dto.OrderLineView;
+import com.example.demo.dto.OrderSummaryView;
 import com.example.demo.entity.Order;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
-    List<Order> findByUserId(Long userId);
+    String SUMMARY_SELECT = "SELECT new com.example.demo.dto.OrderSummaryView(" +
+            "o.id, o.orderDate, o.totalAmount, o.status, o.createdAt) FROM Order o";
+
+    // Newest first; both seek on idx_orders_user_created
+    @Query(SUMMARY_SELECT + " WHERE o.userId = :userId ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummaryView> findHistory(@Param("userId") Long userId, Limit limit);
+
+    @Query(SUMMARY_SELECT + " WHERE o.userId = :userId AND (o.createdAt < :createdAt " +
+            "OR (o.createdAt = :createdAt AND o.id < :id)) ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummaryView> findHistoryBefore(@Param("userId") Long userId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    // Oldest first, so everything archived is older than everything left behind
+    @Query("SELECT o.id FROM Order o WHERE o.createdAt < :before ORDER BY o.createdAt, o.id")
+    List<Long> findIdsCreatedBefore(@Param("before") LocalDateTime before, Limit limit);
+
+    // i.book.id reads the foreign key column; no join to books
+    @Query("SELECT new com.example.demo.dto.OrderLineView(i.order.id, i.book.id, i.title, i.price, i.quantity) " +
+            "FROM OrderItem i WHERE i.order.id IN :orderIds ORDER BY i.id")
+    List<OrderLineView> findLinesByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    // Orders already placed for the given checkout requests: [requestId, orderId]
+    @Query("SELECT o.requestId, o.id FROM Order o WHERE o.requestId IN :requestIds")
+    List<Object[]> findIdsByRequestIds(@Param("requestIds") Collection<String> requestIds);
+
+    // The order placed for one checkout request: [orderId, userId, createdAt]
+    @Query("SELECT o.id, o.userId, o.createdAt FROM Order o WHERE o.requestId = :requestId")
+    List<Object[]> findByRequestIdForStatus(@Param("requestId") String requestId);
+
+    // Units sold per book, archived orders included: [bookId, quantity]
+    @Query(value = "SELECT book_id, SUM(units) FROM (" +
+            "SELECT book_id, quantity AS units FROM order_items " +
+            "UNION ALL SELECT book_id, units FROM archived_book_sales) s GROUP BY book_id", nativeQuery = true)
+    List<Object[]> sumQuantityByBook();
 }
\ No newline at end of file
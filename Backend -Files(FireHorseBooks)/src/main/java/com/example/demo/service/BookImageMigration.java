@@ -0,0 +1,106 @@
+package com.example.demo.service;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves covers still stored in the legacy {@code books.image} column into the
+ * {@link ImageStore}. One book per transaction; the column is cleared
+ * afterwards and can be dropped by hand. Off by default: it is enabled once,
+ * after upgrading a database from a release that kept covers in the row, so
+ * ordinary startups do not scan the books table.
+ */
+@Component
+public class BookImageMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(BookImageMigration.class);
+
+    @Value("${books.images.migrate-on-startup:false}")
+    private boolean enabled;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        if (hasColumn("books", "image")) {
+            migrateBookBlobs();
+        }
+    }
+
+    private void migrateBookBlobs() {
+        boolean hasContentType = hasColumn("books", "image_content_type");
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM books WHERE image IS NOT NULL", Long.class);
+        for (Long id : ids) {
+            transactionTemplate.executeWithoutResult(status -> {
+                byte[] bytes = jdbcTemplate.queryForObject(
+                        "SELECT image FROM books WHERE id = ?", byte[].class, id);
+                Integer existing = jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM book_images WHERE book_id = ?", Integer.class, id);
+                if (existing == 0) {
+                    String declared = hasContentType
+                            ? jdbcTemplate.queryForObject(
+                                    "SELECT image_content_type FROM books WHERE id = ?", String.class, id)
+                            : null;
+                    String type = BookImageService.detectContentType(
+                            new BufferedInputStream(new ByteArrayInputStream(bytes)), declared);
+                    String key = store(bytes);
+                    jdbcTemplate.update(
+                            "INSERT INTO book_images (book_id, content_type, checksum, size_bytes, updated_at) "
+                                    + "VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP)",
+                            id, type, key, bytes.length);
+                    thumbnailService.generateThumbnail(id, key);
+                }
+                jdbcTemplate.update("UPDATE books SET image = NULL WHERE id = ?", id);
+            });
+        }
+        if (!ids.isEmpty()) {
+            log.info("Moved {} book covers from books.image to the image store", ids.size());
+        }
+    }
+
+    private String store(byte[] bytes) {
+        try {
+            return imageStore.put(new ByteArrayInputStream(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean hasColumn(String table, String column) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((Connection connection) -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet rs = metaData.getColumns(connection.getCatalog(), null, table, column)) {
+                return rs.next();
+            }
+        }));
+    }
+}
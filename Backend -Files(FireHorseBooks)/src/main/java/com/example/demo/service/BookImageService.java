@@ -0,0 +1,130 @@
+package com.example.demo.service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLConnection;
+import java.nio.channels.Channels;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import com.example.demo.dto.ImageMetadata;
+import com.example.demo.entity.Book;
+import com.example.demo.entity.BookImage;
+import com.example.demo.repository.BookImageRepository;
+import com.example.demo.repository.BookRepository;
+
+/**
+ * Keeps cover bytes in the {@link ImageStore} and their metadata in
+ * {@code book_images}. Thumbnails are rendered after the upload commits.
+ */
+@Service
+public class BookImageService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookImageService.class);
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @Autowired
+    private BookImageRepository bookImageRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    public BookImage saveImage(Book book, InputStream in, String contentType) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in);
+        String type = detectContentType(buffered, contentType);
+        String key = imageStore.put(buffered);
+
+        BookImage image = new BookImage();
+        image.setBook(book);
+        image.setContentType(type);
+        image.setChecksum(key);
+        image.setSizeBytes(imageStore.size(key));
+        BookImage saved = bookImageRepository.save(image);
+
+        Long bookId = book.getId();
+        AfterCommit.run(() -> thumbnailService.generateThumbnail(bookId, key));
+        return saved;
+    }
+
+    /**
+     * Drops the cover row of a book. The cover and thumbnail files are removed
+     * only after the transaction commits, and only while nothing references
+     * them: a rollback (e.g. the book is still on an order) restores the row,
+     * and another book may have uploaded the same bytes in the meantime.
+     */
+    public void deleteImage(Long bookId) {
+        BookImage image = bookImageRepository.findById(bookId).orElse(null);
+        String thumbnailKey = bookRepository.findById(bookId)
+                .map(book -> ThumbnailService.keyOf(book.getImageUrl()))
+                .orElse(null);
+        if (image == null && thumbnailKey == null) {
+            return;
+        }
+        if (image != null) {
+            // Removed through the session: a bulk delete would leave this instance
+            // managed, and flushing it re-persists the book being deleted
+            bookImageRepository.delete(image);
+        }
+        AfterCommit.run(() -> {
+            if (image != null) {
+                deleteIfUnreferenced(image.getChecksum());
+            }
+            if (thumbnailKey != null
+                    && bookRepository.countByImageUrl(ThumbnailService.urlOf(thumbnailKey)) == 0) {
+                deleteIfUnreferenced(thumbnailKey);
+            }
+        });
+    }
+
+    // Content is shared between books with identical covers
+    private void deleteIfUnreferenced(String key) {
+        if (bookImageRepository.countByChecksum(key) > 0) {
+            return;
+        }
+        try {
+            imageStore.delete(key);
+        } catch (IOException e) {
+            log.warn("Could not delete image {}: {}", key, e.getMessage());
+        }
+    }
+
+    public ImageMetadata getImageMetadata(Long bookId) {
+        return bookImageRepository.findById(bookId)
+                .map(image -> new ImageMetadata(image.getChecksum(), image.getSizeBytes(),
+                        image.getContentType(), "\"" + image.getChecksum() + "\""))
+                .orElse(null);
+    }
+
+    /**
+     * Copies {@code count} bytes of the stored image starting at {@code start}
+     * to the output stream. The servlet API offers no socket channel, so this
+     * is an ordinary buffered copy rather than sendfile.
+     */
+    public void writeImage(String key, long start, long count, OutputStream out) throws IOException {
+        imageStore.transferTo(key, start, count, Channels.newChannel(out));
+        out.flush();
+    }
+
+    static String detectContentType(InputStream in, String declared) {
+        if (declared != null && !declared.isBlank()) {
+            return declared;
+        }
+        String guessed = null;
+        try {
+            // Relies on mark/reset, so the stream must support it
+            guessed = URLConnection.guessContentTypeFromStream(in);
+        } catch (IOException e) {
+            guessed = null;
+        }
+        return guessed != null ? guessed : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+    }
+}
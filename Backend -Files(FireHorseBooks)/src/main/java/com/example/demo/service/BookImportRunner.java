@@ -0,0 +1,59 @@
+package com.example.demo.service;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+import com.example.demo.entity.ImportJob;
+
+/**
+ * Command-line import: started with {@code --books.import.file=catalog.csv}
+ * the application imports the file and exits (status 1 if the import
+ * failed). Running the same command again after an interruption resumes
+ * the import. Add {@code --spring.main.web-application-type=none} to skip
+ * starting the web server.
+ */
+@Component
+public class BookImportRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(BookImportRunner.class);
+
+    @Value("${books.import.file:}")
+    private String file;
+
+    // Defaults to the file extension
+    @Value("${books.import.format:}")
+    private String format;
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (file.isBlank()) {
+            return;
+        }
+        Path path = Paths.get(file);
+        String name = path.getFileName().toString();
+        String fileFormat = format.isBlank() ? name.substring(name.lastIndexOf('.') + 1) : format;
+
+        ImportJob job = bookImportService.importFile(path, fileFormat);
+        log.info("Import {} {}: {} imported, {} duplicates, {} invalid", job.getId(), job.getStatus(),
+                job.getImported(), job.getDuplicates(), job.getInvalid());
+        if (job.getErrors() != null) {
+            log.warn("Import {} errors:\n{}", job.getId(), job.getErrors());
+        }
+        int status = ImportJob.COMPLETED.equals(job.getStatus()) ? 0 : 1;
+        System.exit(SpringApplication.exit(context, () -> status));
+    }
+}
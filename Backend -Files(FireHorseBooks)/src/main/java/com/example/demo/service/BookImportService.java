@@ -0,0 +1,360 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.example.demo.entity.Book;
+import com.example.demo.entity.ImportJob;
+import com.example.demo.event.BookAdded;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.repository.ImportJobRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Bulk catalog import. Records are streamed from the file and written in
+ * chunks, each in its own transaction together with the job's row
+ * checkpoint, so an interrupted import resumes after the last committed
+ * chunk. Rows are validated one by one; a book whose ISBN, or title and
+ * author, is already in the catalog (or earlier in the file) is skipped.
+ */
+@Service
+public class BookImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookImportService.class);
+
+    private static final List<String> UNFINISHED = List.of(ImportJob.QUEUED, ImportJob.RUNNING);
+    private static final int MAX_ERRORS = 50;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private CatalogStatsService catalogStatsService;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    @Qualifier("importExecutor")
+    private Executor importExecutor;
+
+    @Value("${books.import.dir:data/imports}")
+    private String importDir;
+
+    @Value("${books.import.chunk-size:1000}")
+    private int chunkSize;
+
+    // Jobs being run by this instance; keeps a resume from racing a running import
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    /** Stores an uploaded catalog under books.import.dir and queues its import. */
+    public ImportJob submit(InputStream body, String format) throws IOException {
+        String normalized = CatalogFileReader.normalizeFormat(format);
+        String id = UUID.randomUUID().toString();
+        Path dir = Paths.get(importDir).toAbsolutePath();
+        Files.createDirectories(dir);
+        Path file = dir.resolve(id + "." + normalized);
+        if (Files.copy(body, file) == 0) {
+            Files.delete(file);
+            throw new RuntimeException("Import file is empty (send it as the raw request body, not as a form)");
+        }
+
+        ImportJob job = importJobRepository.save(newJob(id, file, normalized));
+        importExecutor.execute(() -> run(id));
+        return job;
+    }
+
+    /**
+     * Imports a file on the calling thread, picking up where an unfinished
+     * import of the same file stopped.
+     */
+    public ImportJob importFile(Path file, String format) {
+        String normalized = CatalogFileReader.normalizeFormat(format);
+        Path source = file.toAbsolutePath().normalize();
+        if (!Files.isReadable(source)) {
+            throw new RuntimeException("Import file not readable: " + source);
+        }
+        ImportJob job = importJobRepository.findFirstBySourceAndStatusIn(source.toString(), UNFINISHED)
+                .orElseGet(() -> importJobRepository.save(
+                        newJob(UUID.randomUUID().toString(), source, normalized)));
+        if (job.getRowsProcessed() > 0) {
+            log.info("Resuming import {} of {} after row {}", job.getId(), source, job.getRowsProcessed());
+        }
+        run(job.getId());
+        return getJob(job.getId());
+    }
+
+    public ImportJob getJob(String jobId) {
+        return importJobRepository.findById(jobId)
+                .orElseThrow(() -> new RuntimeException("Import job not found: " + jobId));
+    }
+
+    // Uploads interrupted by a restart continue from their checkpoint
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUploads() {
+        Path dir = Paths.get(importDir).toAbsolutePath();
+        for (ImportJob job : importJobRepository.findByStatusIn(UNFINISHED)) {
+            if (Paths.get(job.getSource()).startsWith(dir)) {
+                log.info("Resuming import {} after row {}", job.getId(), job.getRowsProcessed());
+                importExecutor.execute(() -> run(job.getId()));
+            }
+        }
+    }
+
+    // Uploads are only kept so an interrupted import can resume; command-line files are left alone
+    private void deleteUpload(String source) {
+        Path file = Paths.get(source);
+        if (file.startsWith(Paths.get(importDir).toAbsolutePath())) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete imported upload {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    void run(String jobId) {
+        if (!running.add(jobId)) {
+            return;
+        }
+        try {
+            ImportJob job = getJob(jobId);
+            job.setStatus(ImportJob.RUNNING);
+            importJobRepository.save(job);
+
+            long started = System.nanoTime();
+            try (CatalogFileReader reader = CatalogFileReader.open(Paths.get(job.getSource()), job.getFormat())) {
+                reader.skip(job.getRowsProcessed());
+                List<CatalogFileReader.Row> chunk;
+                while (!(chunk = reader.next(chunkSize)).isEmpty()) {
+                    List<CatalogFileReader.Row> rows = chunk;
+                    job = transactionTemplate.execute(status -> importChunk(jobId, rows));
+                    log.info("Import {}: {} rows processed ({} imported, {} duplicates, {} invalid)",
+                            jobId, job.getRowsProcessed(), job.getImported(), job.getDuplicates(), job.getInvalid());
+                }
+            }
+            finish(jobId, ImportJob.COMPLETED, null);
+            log.info("Import {} completed in {} ms", jobId, (System.nanoTime() - started) / 1_000_000);
+            deleteUpload(job.getSource());
+        } catch (Exception e) {
+            log.error("Import {} failed: {}", jobId, e.getMessage(), e);
+            finish(jobId, ImportJob.FAILED, "import stopped: " + e.getMessage());
+        } finally {
+            running.remove(jobId);
+        }
+    }
+
+    private ImportJob importChunk(String jobId, List<CatalogFileReader.Row> rows) {
+        ImportJob job = getJob(jobId);
+        List<String> errors = new ArrayList<>();
+        List<Book> candidates = new ArrayList<>(rows.size());
+        for (CatalogFileReader.Row row : rows) {
+            String error = row.getError();
+            Book book = null;
+            if (error == null) {
+                try {
+                    book = toBook(row);
+                } catch (RuntimeException e) {
+                    error = e.getMessage();
+                }
+            }
+            if (book == null) {
+                errors.add("row " + row.getNumber() + ": " + error);
+            } else {
+                candidates.add(book);
+            }
+        }
+
+        List<Book> books = withoutDuplicates(candidates);
+        bookRepository.saveAll(books);
+        for (Book book : books) {
+            outboxService.publish(new BookAdded(book.getId(), book.getTitle(), book.getAuthor(),
+                    book.getCategory(), book.getPrice(), book.getStock()));
+        }
+        catalogStatsService.booksAdded(books);
+
+        job.setRowsProcessed(rows.get(rows.size() - 1).getNumber());
+        job.setImported(job.getImported() + books.size());
+        job.setDuplicates(job.getDuplicates() + candidates.size() - books.size());
+        job.setInvalid(job.getInvalid() + errors.size());
+        job.setErrors(appendErrors(job.getErrors(), errors));
+        // Write the chunk and its checkpoint, then drop them from the context so it stays small
+        entityManager.flush();
+        entityManager.clear();
+
+        if (!books.isEmpty()) {
+            catalogCache.evictLists();
+        }
+        return job;
+    }
+
+    private List<Book> withoutDuplicates(List<Book> candidates) {
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        Set<String> isbns = new HashSet<>();
+        Set<String> titles = new HashSet<>();
+        for (Book book : candidates) {
+            if (book.getIsbn() != null) {
+                isbns.add(book.getIsbn());
+            }
+            titles.add(book.getTitle());
+        }
+        // Seeded with what the catalog already holds; grows as rows are accepted
+        Set<String> seenIsbns = isbns.isEmpty() ? new HashSet<>() : new HashSet<>(bookRepository.findExistingIsbns(isbns));
+        Set<String> seenTitleAuthors = new HashSet<>();
+        for (Object[] row : bookRepository.findTitleAuthorByTitleIn(titles)) {
+            seenTitleAuthors.add(titleAuthorKey((String) row[0], (String) row[1]));
+        }
+
+        List<Book> books = new ArrayList<>(candidates.size());
+        for (Book book : candidates) {
+            boolean newIsbn = book.getIsbn() == null || seenIsbns.add(book.getIsbn());
+            boolean newTitleAuthor = seenTitleAuthors.add(titleAuthorKey(book.getTitle(), book.getAuthor()));
+            if (newIsbn && newTitleAuthor) {
+                books.add(book);
+            }
+        }
+        return books;
+    }
+
+    private static Book toBook(CatalogFileReader.Row row) {
+        Book book = new Book();
+        book.setTitle(required(row, "title"));
+        book.setAuthor(required(row, "author"));
+        book.setCategory(required(row, "category"));
+        book.setPrice(price(row.get("price")));
+        book.setStock(stock(row.get("stock")));
+        String description = row.get("description");
+        book.setDescription(description == null || description.isBlank() ? null : description.trim());
+        book.setIsbn(isbn(row.get("isbn")));
+        return book;
+    }
+
+    private static String required(CatalogFileReader.Row row, String field) {
+        String value = row.get(field);
+        if (value == null || value.isBlank()) {
+            throw new RuntimeException(field + " is required");
+        }
+        value = value.trim();
+        if (value.length() > 255) {
+            throw new RuntimeException(field + " is longer than 255 characters");
+        }
+        return value;
+    }
+
+    private static BigDecimal price(String value) {
+        if (value == null || value.isBlank()) {
+            throw new RuntimeException("price is required");
+        }
+        try {
+            BigDecimal price = new BigDecimal(value.trim());
+            if (price.signum() < 0) {
+                throw new RuntimeException("price must not be negative");
+            }
+            return price;
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("price is not a number: " + value);
+        }
+    }
+
+    private static int stock(String value) {
+        if (value == null || value.isBlank()) {
+            return 0;
+        }
+        try {
+            int stock = Integer.parseInt(value.trim());
+            if (stock < 0) {
+                throw new RuntimeException("stock must not be negative");
+            }
+            return stock;
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("stock is not a whole number: " + value);
+        }
+    }
+
+    // ISBN-10 or ISBN-13, stored without hyphens or spaces
+    private static String isbn(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String isbn = value.replaceAll("[\\s-]", "").toUpperCase(Locale.ROOT);
+        if (!isbn.matches("\\d{13}|\\d{9}[\\dX]")) {
+            throw new RuntimeException("isbn is not a valid ISBN-10 or ISBN-13: " + value);
+        }
+        return isbn;
+    }
+
+    private static String titleAuthorKey(String title, String author) {
+        return title.trim().toLowerCase(Locale.ROOT) + '\u0000' + author.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String appendErrors(String existing, List<String> errors) {
+        StringBuilder text = new StringBuilder(existing == null ? "" : existing);
+        long lines = text.chars().filter(c -> c == '\n').count();
+        for (String error : errors) {
+            if (lines >= MAX_ERRORS) {
+                break;
+            }
+            text.append(error).append('\n');
+            lines++;
+        }
+        return text.length() == 0 ? null : text.toString();
+    }
+
+    private ImportJob newJob(String id, Path source, String format) {
+        ImportJob job = new ImportJob();
+        job.setId(id);
+        job.setSource(source.toString());
+        job.setFormat(format);
+        job.setStatus(ImportJob.QUEUED);
+        return job;
+    }
+
+    private void finish(String jobId, String status, String error) {
+        try {
+            ImportJob job = getJob(jobId);
+            job.setStatus(status);
+            if (error != null) {
+                // Always kept, even when the validation errors have filled the list
+                job.setErrors((job.getErrors() == null ? "" : job.getErrors()) + error + '\n');
+            }
+            importJobRepository.save(job);
+        } catch (RuntimeException e) {
+            log.warn("Could not record import {} as {}: {}", jobId, status, e.getMessage());
+        }
+    }
+}
@@ -2,12 +2,26 @@ package com.example.demo.service;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.Comparator;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import com.example.demo.dto.BookSlice;
+import com.example.demo.dto.FacetQuery;
+import com.example.demo.dto.FacetResult;
+import com.example.demo.dto.BookSummary;
+import com.example.demo.dto.SearchResult;
+import com.example.demo.dto.Suggestion;
 import com.example.demo.entity.Book;
+import com.example.demo.event.BookAdded;
+import com.example.demo.event.BookDeleted;
+import com.example.demo.event.StockChanged;
 import com.example.demo.repository.BookRepository;
+import jakarta.transaction.Transactional;
 
 @Service
 public class BookService {
@@ -15,8 +29,83 @@ public class BookService {
     @Autowired
     private BookRepository bookRepository;
 
-    public List<Book> getAllBooks() {
-        return bookRepository.findAll();
+    @Autowired
+    private BookImageService bookImageService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private SuggestionService suggestionService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private CatalogStatsService catalogStatsService;
+
+    @Autowired
+    private FacetService facetService;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @Value("${books.catalog.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${books.catalog.max-page-size:100}")
+    private int maxPageSize;
+
+    public List<BookSummary> getAllBooks() {
+        return catalogCache.list("all", bookRepository::findAllSummaries);
+    }
+
+    /**
+     * Returns one page of the catalog in the given order, starting after the
+     * cursor. Pages are located by seeking on the sort index, so deep pages
+     * cost the same as the first one.
+     */
+    public BookSlice getCatalogPage(String sortParam, String cursorToken, Integer size) {
+        CatalogSort sort = CatalogSort.fromParam(sortParam);
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        CatalogCursor cursor = cursorToken == null || cursorToken.isBlank()
+                ? null
+                : CatalogCursor.decode(cursorToken, sort);
+        // One extra row tells us whether another page exists
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<BookSummary> rows;
+        switch (sort) {
+            case PRICE_ASC:
+                rows = cursor == null
+                        ? bookRepository.findByPriceAsc(limit)
+                        : bookRepository.findByPriceAscAfter(cursor.getPrice(), cursor.getId(), limit);
+                break;
+            case PRICE_DESC:
+                rows = cursor == null
+                        ? bookRepository.findByPriceDesc(limit)
+                        : bookRepository.findByPriceDescAfter(cursor.getPrice(), cursor.getId(), limit);
+                break;
+            case TITLE:
+                rows = cursor == null
+                        ? bookRepository.findByTitle(limit)
+                        : bookRepository.findByTitleAfter(cursor.getTitle(), cursor.getId(), limit);
+                break;
+            default:
+                rows = cursor == null
+                        ? bookRepository.findNewest(limit)
+                        : bookRepository.findNewestAfter(cursor.getCreatedAt(), cursor.getId(), limit);
+        }
+
+        boolean hasNext = rows.size() > pageSize;
+        List<BookSummary> items = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext
+                ? CatalogCursor.after(sort, items.get(items.size() - 1)).encode()
+                : null;
+        return new BookSlice(items, nextCursor, hasNext);
     }
 
     public Book getBookById(Long id) {
@@ -24,6 +113,13 @@ public class BookService {
                 .orElseThrow(() -> new RuntimeException("Book not found with id: " + id));
     }
 
+    @Cacheable(cacheNames = CatalogCache.BOOK, key = "#id", sync = true)
+    public BookSummary getBookSummary(Long id) {
+        return bookRepository.findSummaryById(id)
+                .orElseThrow(() -> new RuntimeException("Book not found with id: " + id));
+    }
+
+    @Transactional
     public Book addBook(String title, String author, String category, int stock,
             BigDecimal price, String description, MultipartFile image) throws IOException {
         Book book = new Book();
@@ -34,27 +130,66 @@ public class BookService {
         book.setPrice(price);
         book.setDescription(description);
 
+        Book saved = bookRepository.save(book);
         if (image != null && !image.isEmpty()) {
-            book.setImage(image.getBytes());
+            bookImageService.saveImage(saved, image.getInputStream(), image.getContentType());
         }
-        return bookRepository.save(book);
+        outboxService.publish(new BookAdded(saved.getId(), title, author, category, price, stock));
+        catalogStatsService.booksAdded(List.of(saved));
+        catalogCache.evictLists();
+        return saved;
     }
 
+    @Transactional
     public Book updateBookStock(Long bookId, int stock) {
         Book book = bookRepository.findById(bookId)
                 .orElseThrow(() -> new RuntimeException("Book not found with id: " + bookId));
         book.setStock(stock);
-        return bookRepository.save(book);
+        Book saved = bookRepository.save(book);
+        if (inventoryLedger.isEnabled()) {
+            AfterCommit.run(() -> inventoryLedger.setStock(bookId, stock));
+        }
+        outboxService.publish(new StockChanged(saved.getId(), stock));
+        catalogCache.evictStock(saved.getId());
+        return saved;
     }
 
+    @Transactional
     public void deleteBook(Long bookId) {
+        bookImageService.deleteImage(bookId);
         bookRepository.deleteById(bookId);
+        outboxService.publish(new BookDeleted(bookId));
+        catalogStatsService.bookDeleted(bookId);
+        AfterCommit.run(() -> inventoryLedger.forget(bookId));
+        catalogCache.evictBook(bookId);
+    }
+
+    public FacetResult browse(FacetQuery query, int page, Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        return facetService.browse(query, page, pageSize);
+    }
+
+    public List<Suggestion> suggest(String prefix, int limit) {
+        return suggestionService.suggest(prefix, limit);
+    }
+
+    /**
+     * Full-text search over title, author and category, ranked by relevance.
+     * An empty query matches every book.
+     */
+    public SearchResult searchBooks(String query, int page, Integer size) {
+        return catalogCache.search(query + ":" + page + ":" + size, () -> loadSearchPage(query, page, size));
     }
 
-    public List<Book> searchBooks(String query) {
-        if (query == null || query.trim().isEmpty()) {
-            return bookRepository.findAll();
+    private SearchResult loadSearchPage(String query, int page, Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        SearchIndexService.SearchHits hits = searchIndexService.search(query, Math.max(page, 0), pageSize);
+        if (hits.getIds().isEmpty()) {
+            return new SearchResult(List.of(), hits.getTotal());
         }
-        return bookRepository.searchBooks(query);
+        List<Long> ids = hits.getIds();
+        List<BookSummary> books = bookRepository.findSummariesByIds(ids);
+        books.sort(Comparator.comparingInt(book -> ids.indexOf(book.getId())));
+        return new SearchResult(books, hits.getTotal());
     }
 }
\ No newline at end of file
@@ -1,65 +1,119 @@
 package com.example.demo.service;
 
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import com.example.demo.dto.CartLineView;
+import com.example.demo.dto.CartOperation;
 import com.example.demo.entity.Book;
 import com.example.demo.entity.CartItem;
 import com.example.demo.repository.BookRepository;
-import com.example.demo.repository.CartRepository;
 import jakarta.transaction.Transactional;
 
 @Service
 public class CartService {
 
     @Autowired
-    private CartRepository cartRepository;
+    private CartStore cartStore;
 
     @Autowired
     private BookRepository bookRepository;
 
+    @Value("${books.cart.max-batch-operations:500}")
+    private int maxBatchOperations;
+
     @Transactional
     public CartItem addToCart(Long bookId, Long userId, int quantity) {
         Book book = bookRepository.findById(bookId)
                 .orElseThrow(() -> new RuntimeException("Book not found"));
 
-        CartItem existing = cartRepository.findByUserIdAndBookId(userId, bookId);
+        return cartStore.add(userId, book, quantity);
+    }
+
+    /**
+     * Applies many cart changes at once and returns the resulting cart.
+     * Operations are folded per book in request order, so only the final
+     * quantity of each line is written. Books are checked with one IN query
+     * and the cart store applies the result in one read-modify-write.
+     */
+    @Transactional
+    public List<CartLineView> applyBatch(Long userId, List<CartOperation> operations) {
+        if (operations == null || operations.isEmpty()) {
+            return cartStore.findLinesByUserId(userId);
+        }
+        if (operations.size() > maxBatchOperations) {
+            throw new RuntimeException("At most " + maxBatchOperations + " cart operations per request");
+        }
 
-        if (existing != null) {
-            existing.setQuantity(existing.getQuantity() + quantity);
-            return cartRepository.save(existing);
+        Set<Long> bookIds = new HashSet<>();
+        for (CartOperation operation : operations) {
+            if (operation.getBookId() == null) {
+                throw new RuntimeException("Cart operation without bookId");
+            }
+            bookIds.add(operation.getBookId());
+        }
+        Set<Long> existingBooks = new HashSet<>(bookRepository.findExistingIds(bookIds));
+        for (Long bookId : bookIds) {
+            if (!existingBooks.contains(bookId)) {
+                throw new RuntimeException("Book not found: " + bookId);
+            }
         }
 
-        CartItem item = new CartItem();
-        item.setBook(book);
-        item.setUserId(userId);
-        item.setQuantity(quantity);
+        cartStore.update(userId, current -> {
+            Map<Long, Long> target = new LinkedHashMap<>();
+            for (CartOperation operation : operations) {
+                Long bookId = operation.getBookId();
+                long before = target.containsKey(bookId)
+                        ? target.get(bookId)
+                        : current.getOrDefault(bookId, 0L);
+                target.put(bookId, apply(operation, before));
+            }
+            return target;
+        });
+        return cartStore.findLinesByUserId(userId);
+    }
 
-        return cartRepository.save(item);
+    private static long apply(CartOperation operation, long quantity) {
+        String op = operation.getOp() == null ? "" : operation.getOp().toLowerCase();
+        Integer amount = operation.getQuantity();
+        switch (op) {
+            case "add":
+                if (amount == null || amount <= 0) {
+                    throw new RuntimeException("add needs a positive quantity for book " + operation.getBookId());
+                }
+                return quantity + amount;
+            case "set":
+                if (amount == null || amount < 0) {
+                    throw new RuntimeException("set needs a quantity of 0 or more for book " + operation.getBookId());
+                }
+                return amount;
+            case "remove":
+                return 0;
+            default:
+                throw new RuntimeException("Unknown cart operation: " + operation.getOp());
+        }
     }
 
-    public List<CartItem> getCartByUser(Long userId) {
-        return cartRepository.findByUserId(userId);
+    public List<CartLineView> getCartByUser(Long userId) {
+        return cartStore.findLinesByUserId(userId);
     }
 
     public void updateQuantity(Long cartItemId, int quantity) {
-        CartItem item = cartRepository.findById(cartItemId)
-                .orElseThrow(() -> new RuntimeException("Cart item not found"));
-
-        if (quantity <= 0) {
-            cartRepository.delete(item);
-        } else {
-            item.setQuantity(quantity);
-            cartRepository.save(item);
+        if (!cartStore.updateQuantity(cartItemId, quantity)) {
+            throw new RuntimeException("Cart item not found");
         }
     }
 
     public void removeFromCart(Long cartItemId) {
-        cartRepository.deleteById(cartItemId);
+        cartStore.remove(cartItemId);
     }
 
     public void clearCart(Long userId) {
-        List<CartItem> cartItems = cartRepository.findByUserId(userId);
-        cartRepository.deleteAll(cartItems);
+        cartStore.clear(userId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.example.demo.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import com.example.demo.dto.CartLineView;
+import com.example.demo.entity.Book;
+import com.example.demo.entity.CartItem;
+
+/**
+ * Where carts live. {@link JpaCartStore} writes every change to
+ * {@code cart_items}; {@link MemoryCartStore} keeps carts in memory and
+ * writes them back in the background. Chosen with {@code books.cart.store}.
+ *
+ * Line ids come from the {@code cart_items} id generator in both, so an id
+ * handed to a client stays valid whichever store answers later.
+ */
+public interface CartStore {
+
+    /** The user's lines with their books, oldest first. */
+    List<CartItem> findByUserId(Long userId);
+
+    /** Lines of several users at once, with their books. */
+    List<CartItem> findByUserIdIn(Collection<Long> userIds);
+
+    /** The cart page: lines whose book still exists, oldest first. */
+    List<CartLineView> findLinesByUserId(Long userId);
+
+    /** Adds to the book's line, creating it if needed, and returns the line. */
+    CartItem add(Long userId, Book book, int quantity);
+
+    /**
+     * Read-modify-write of one cart: {@code change} gets the current
+     * quantity per book and returns the wanted quantity of each book it
+     * touches (zero or less removes the line). Books it leaves out keep
+     * their lines. If {@code change} throws, the cart is unchanged.
+     */
+    void update(Long userId, Function<Map<Long, Long>, Map<Long, Long>> change);
+
+    /** Sets a line's quantity (zero or less removes it); false if there is no such line. */
+    boolean updateQuantity(Long cartItemId, int quantity);
+
+    void remove(Long cartItemId);
+
+    void clear(Long userId);
+
+    /** Drops lines an order consumed. Called inside the order's transaction. */
+    void checkedOut(Collection<CartItem> items);
+}
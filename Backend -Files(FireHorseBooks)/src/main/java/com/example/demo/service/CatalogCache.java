@@ -0,0 +1,133 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import com.example.demo.dto.BookSummary;
+import com.example.demo.dto.SearchResult;
+import com.example.demo.repository.BookRepository;
+
+/**
+ * Names and invalidation for the catalog read caches. Evictions run after
+ * the writing transaction commits so a concurrent reader cannot reload the
+ * old row into the cache; the TTL bounds anything that still slips through.
+ *
+ * Stock changes with every order, so it is not allowed to invalidate the
+ * lists: a list or search page stays cached with the stock it was loaded
+ * with, and books whose stock changed since are overlaid on the way out
+ * from one small query. Any other change to a book still drops every list.
+ */
+@Component
+public class CatalogCache {
+
+    public static final String BOOK = "catalog.book";
+    public static final String LIST = "catalog.list";
+    public static final String SEARCH = "catalog.search";
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    // Current stock of books whose stock changed since the lists were last cleared
+    private final Map<Long, Integer> stock = new ConcurrentHashMap<>();
+    // Changed books whose new stock has not been read yet
+    private final Set<Long> staleStock = ConcurrentHashMap.newKeySet();
+
+    /** Reads the whole catalog through {@link #LIST}, with current stock. */
+    public List<BookSummary> list(Object key, Callable<List<BookSummary>> loader) {
+        return withCurrentStock(load(LIST, key, loader));
+    }
+
+    /** Reads a search page through {@link #SEARCH}, with current stock. */
+    public SearchResult search(Object key, Callable<SearchResult> loader) {
+        SearchResult result = load(SEARCH, key, loader);
+        List<BookSummary> items = withCurrentStock(result.getItems());
+        return items == result.getItems() ? result : new SearchResult(items, result.getTotal());
+    }
+
+    /** A book's stock changed: drop its entry; lists pick the new level up on their next read. */
+    public void evictStock(Long bookId) {
+        AfterCommit.run(() -> {
+            cache(BOOK).evict(bookId);
+            staleStock.add(bookId);
+        });
+    }
+
+    /** A book changed or disappeared: drop its entry and every list containing it. */
+    public void evictBook(Long bookId) {
+        AfterCommit.run(() -> {
+            cache(BOOK).evict(bookId);
+            clearLists();
+        });
+    }
+
+    /** A book was added: no per-book entry exists yet, only lists are stale. */
+    public void evictLists() {
+        AfterCommit.run(this::clearLists);
+    }
+
+    /** The search index changed after the fact (see CatalogIndexListener): drop cached results. */
+    public void evictSearches() {
+        AfterCommit.run(() -> cache(SEARCH).clear());
+    }
+
+    // Concurrent misses on one key wait for a single load
+    private <T> T load(String name, Object key, Callable<T> loader) {
+        try {
+            return cache(name).get(key, loader);
+        } catch (Cache.ValueRetrievalException e) {
+            // Callers expect the loader's own exception, e.g. a rejected page
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private List<BookSummary> withCurrentStock(List<BookSummary> books) {
+        if (!staleStock.isEmpty()) {
+            List<Long> ids = new ArrayList<>(staleStock);
+            // Removed before reading, so a change committed meanwhile is read again next time
+            staleStock.removeAll(ids);
+            for (Object[] row : bookRepository.findStockByIds(ids)) {
+                stock.put((Long) row[0], (Integer) row[1]);
+            }
+        }
+        if (stock.isEmpty()) {
+            return books;
+        }
+        List<BookSummary> current = new ArrayList<>(books.size());
+        for (BookSummary book : books) {
+            Integer level = stock.get(book.getId());
+            current.add(level == null || level.equals(book.getStock()) ? book : new BookSummary(book.getId(),
+                    book.getTitle(), book.getAuthor(), book.getPrice(), book.getCategory(), level,
+                    book.getDescription(), book.getImageUrl(), book.isHasImage(), book.getCreatedAt(),
+                    book.getUpdatedAt()));
+        }
+        return current;
+    }
+
+    private void clearLists() {
+        cache(LIST).clear();
+        cache(SEARCH).clear();
+        // Every list is reloaded with current stock from here on
+        stock.clear();
+    }
+
+    private Cache cache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache == null) {
+            throw new IllegalStateException("Cache not configured: " + name);
+        }
+        return cache;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.demo.service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import com.example.demo.dto.BookSummary;
+
+/**
+ * Position of the last row of a catalog page: the sort key value and the id
+ * that breaks ties. Serialized as an opaque URL-safe string.
+ */
+public class CatalogCursor {
+
+    private final CatalogSort sort;
+    private final Long id;
+    private final String value;
+
+    private CatalogCursor(CatalogSort sort, Long id, String value) {
+        this.sort = sort;
+        this.id = id;
+        this.value = value;
+    }
+
+    public static CatalogCursor after(CatalogSort sort, BookSummary book) {
+        String value;
+        switch (sort) {
+            case NEWEST:
+                value = book.getCreatedAt().toString();
+                break;
+            case PRICE_ASC:
+            case PRICE_DESC:
+                value = book.getPrice().toPlainString();
+                break;
+            default:
+                value = book.getTitle();
+        }
+        return new CatalogCursor(sort, book.getId(), value);
+    }
+
+    public static CatalogCursor decode(String token, CatalogSort expectedSort) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(":", 3);
+            CatalogSort sort = CatalogSort.fromParam(parts[0]);
+            if (parts.length != 3 || sort != expectedSort) {
+                throw new IllegalArgumentException("Cursor does not match sort " + expectedSort.getParam());
+            }
+            CatalogCursor cursor = new CatalogCursor(sort, Long.valueOf(parts[1]), parts[2]);
+            // Fail fast on a malformed value rather than inside the query
+            if (sort == CatalogSort.NEWEST) {
+                cursor.getCreatedAt();
+            } else if (sort != CatalogSort.TITLE) {
+                cursor.getPrice();
+            }
+            return cursor;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        String raw = sort.getParam() + ":" + id + ":" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public CatalogSort getSort() {
+        return sort;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return LocalDateTime.parse(value);
+    }
+
+    public BigDecimal getPrice() {
+        return new BigDecimal(value);
+    }
+
+    public String getTitle() {
+        return value;
+    }
+}
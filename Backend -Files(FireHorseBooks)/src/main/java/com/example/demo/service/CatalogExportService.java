@@ -0,0 +1,163 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import com.example.demo.dto.BookExportRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+/**
+ * Writes the whole catalog as NDJSON or CSV straight from a database
+ * cursor. Rows are fetched {@code books.export.fetch-size} at a time
+ * (streamed row by row on MySQL) and written as they arrive, so memory use
+ * does not depend on the catalog size. Runs outside any transaction and
+ * never touches the persistence context.
+ */
+@Service
+public class CatalogExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogExportService.class);
+
+    public static final String NDJSON = "ndjson";
+    public static final String CSV = "csv";
+
+    private static final String EXPORT_SQL = "SELECT id, isbn, title, author, category, price, stock, "
+            + "description, image_url, created_at, updated_at FROM books ORDER BY id";
+
+    private static final String[] CSV_HEADER = { "id", "isbn", "title", "author", "category", "price", "stock",
+            "description", "image_url", "created_at", "updated_at" };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${books.export.fetch-size:1000}")
+    private int fetchSize;
+
+    public static String normalizeFormat(String format) {
+        String normalized = format == null ? NDJSON : format.trim().toLowerCase(Locale.ROOT);
+        if (normalized.equals("jsonl")) {
+            normalized = NDJSON;
+        }
+        if (!normalized.equals(NDJSON) && !normalized.equals(CSV)) {
+            throw new IllegalArgumentException("Unsupported export format: " + format + " (expected ndjson or csv)");
+        }
+        return normalized;
+    }
+
+    /** Streams every book to {@code out} and closes it. Returns the number of rows written. */
+    public long export(String format, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        long rows = normalizeFormat(format).equals(CSV) ? exportCsv(out) : exportNdjson(out);
+        log.info("Exported {} books as {} in {} ms", rows, format, (System.nanoTime() - started) / 1_000_000);
+        return rows;
+    }
+
+    private long exportNdjson(OutputStream out) throws IOException {
+        try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+            long rows = streamRows(new RowWriter() {
+                @Override
+                public void write(BookExportRow row) throws IOException {
+                    writer.write(row);
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    writer.flush();
+                }
+            });
+            // The separator only goes between rows; end the last line too
+            if (rows > 0) {
+                writer.flush();
+                out.write('\n');
+            }
+            return rows;
+        }
+    }
+
+    private long exportCsv(OutputStream out) throws IOException {
+        Writer text = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        try (CSVPrinter printer = CSVFormat.DEFAULT.builder().setHeader(CSV_HEADER).build().print(text)) {
+            return streamRows(new RowWriter() {
+                @Override
+                public void write(BookExportRow row) throws IOException {
+                    printer.printRecord(row.getId(), row.getIsbn(), row.getTitle(), row.getAuthor(),
+                            row.getCategory(), row.getPrice(), row.getStock(), row.getDescription(),
+                            row.getImageUrl(), row.getCreatedAt(), row.getUpdatedAt());
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    printer.flush();
+                }
+            });
+        }
+    }
+
+    private interface RowWriter {
+        void write(BookExportRow row) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    // Flushes after the first row so the client gets bytes at once, then once per fetch
+    private long streamRows(RowWriter writer) {
+        long[] count = { 0 };
+        RowCallbackHandler handler = rs -> {
+            try {
+                writer.write(toRow(rs));
+                count[0]++;
+                if (count[0] == 1 || count[0] % fetchSize == 0) {
+                    writer.flush();
+                }
+            } catch (IOException e) {
+                // Typically the client went away; abandons the cursor
+                throw new UncheckedIOException(e);
+            }
+        };
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(EXPORT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // Connector/J buffers the whole result unless asked to stream row by row
+            boolean mysql = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql");
+            statement.setFetchSize(mysql ? Integer.MIN_VALUE : fetchSize);
+            return statement;
+        }, handler);
+        return count[0];
+    }
+
+    private static BookExportRow toRow(ResultSet rs) throws SQLException {
+        return new BookExportRow(
+                rs.getLong("id"),
+                rs.getString("isbn"),
+                rs.getString("title"),
+                rs.getString("author"),
+                rs.getString("category"),
+                rs.getBigDecimal("price"),
+                rs.getInt("stock"),
+                rs.getString("description"),
+                rs.getString("image_url"),
+                rs.getObject("created_at", LocalDateTime.class),
+                rs.getObject("updated_at", LocalDateTime.class));
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.demo.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reads a catalog file one record at a time, so memory use does not depend
+ * on the file size. CSV files need a header row; JSONL files hold one JSON
+ * object per line. Field names are matched case-insensitively.
+ */
+public class CatalogFileReader implements Closeable {
+
+    public static final String CSV = "csv";
+    public static final String JSONL = "jsonl";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** One record, numbered from 1 in file order; {@code error} is set when it could not be parsed. */
+    public static class Row {
+
+        private final long number;
+        private final Map<String, String> fields;
+        private final String error;
+
+        Row(long number, Map<String, String> fields, String error) {
+            this.number = number;
+            this.fields = fields;
+            this.error = error;
+        }
+
+        public long getNumber() {
+            return number;
+        }
+
+        public String get(String field) {
+            return fields.get(field);
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+
+    private final Closeable source;
+    private final Iterator<Row> rows;
+    private long lastNumber;
+
+    private CatalogFileReader(Closeable source, Iterator<Row> rows) {
+        this.source = source;
+        this.rows = rows;
+    }
+
+    public static CatalogFileReader open(Path file, String format) throws IOException {
+        BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        try {
+            switch (normalizeFormat(format)) {
+                case CSV:
+                    CSVParser parser = CSVFormat.DEFAULT.builder()
+                            .setHeader()
+                            .setSkipHeaderRecord(true)
+                            .setIgnoreEmptyLines(true)
+                            .setTrim(true)
+                            .build()
+                            .parse(reader);
+                    return new CatalogFileReader(parser, csvRows(parser));
+                default:
+                    return new CatalogFileReader(reader, jsonlRows(reader));
+            }
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    public static String normalizeFormat(String format) {
+        String normalized = format == null ? "" : format.trim().toLowerCase(Locale.ROOT);
+        if (normalized.equals("ndjson")) {
+            normalized = JSONL;
+        }
+        if (!normalized.equals(CSV) && !normalized.equals(JSONL)) {
+            throw new RuntimeException("Unsupported import format: " + format + " (expected csv or jsonl)");
+        }
+        return normalized;
+    }
+
+    /** Skips records already handled by an earlier run. */
+    public void skip(long count) {
+        while (lastNumber < count && rows.hasNext()) {
+            lastNumber = rows.next().getNumber();
+        }
+    }
+
+    /** Returns up to {@code max} further records; empty at end of file. */
+    public List<Row> next(int max) {
+        List<Row> chunk = new ArrayList<>(Math.min(max, 1024));
+        while (chunk.size() < max && rows.hasNext()) {
+            Row row = rows.next();
+            lastNumber = row.getNumber();
+            chunk.add(row);
+        }
+        return chunk;
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    private static Iterator<Row> csvRows(CSVParser parser) {
+        Iterator<CSVRecord> records = parser.iterator();
+        return new Iterator<Row>() {
+            private long number;
+
+            @Override
+            public boolean hasNext() {
+                return records.hasNext();
+            }
+
+            @Override
+            public Row next() {
+                CSVRecord record = records.next();
+                Map<String, String> fields = new HashMap<>();
+                record.toMap().forEach((name, value) -> fields.put(name.trim().toLowerCase(Locale.ROOT), value));
+                number++;
+                return record.isConsistent()
+                        ? new Row(number, fields, null)
+                        : new Row(number, fields, "expected " + parser.getHeaderNames().size()
+                                + " columns, found " + record.size());
+            }
+        };
+    }
+
+    private static Iterator<Row> jsonlRows(BufferedReader reader) {
+        return new Iterator<Row>() {
+            private long number;
+            private String line = readNonBlank();
+
+            private String readNonBlank() {
+                try {
+                    String next;
+                    while ((next = reader.readLine()) != null && next.isBlank()) {
+                        // blank lines are not records
+                    }
+                    return next;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return line != null;
+            }
+
+            @Override
+            public Row next() {
+                String current = line;
+                line = readNonBlank();
+                number++;
+                Map<String, String> fields = new HashMap<>();
+                try {
+                    JsonNode node = MAPPER.readTree(current);
+                    if (!node.isObject()) {
+                        return new Row(number, fields, "not a JSON object");
+                    }
+                    node.fields().forEachRemaining(field -> fields.put(
+                            field.getKey().trim().toLowerCase(Locale.ROOT),
+                            field.getValue().isNull() ? null : field.getValue().asText()));
+                    return new Row(number, fields, null);
+                } catch (JsonProcessingException e) {
+                    return new Row(number, fields, "malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import com.example.demo.entity.Book;
+import com.example.demo.event.BookAdded;
+import com.example.demo.event.BookDeleted;
+import com.example.demo.event.StockChanged;
+
+/**
+ * Keeps the search index, facet index and suggestions in step with the
+ * catalog from outbox events. Every update is an upsert or a removal, so
+ * a redelivered event changes nothing. New books are indexed once per
+ * relay batch and suggestions rebuilt once the relay has caught up, so a
+ * bulk import does not refresh the index or rebuild the trie per book.
+ * Only called from the relay thread.
+ *
+ * The index trails the commit slightly, so cached search results are
+ * dropped again once it has caught up.
+ */
+@Component
+public class CatalogIndexListener {
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private SuggestionService suggestionService;
+
+    @Autowired
+    private FacetService facetService;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    private final List<Book> added = new ArrayList<>();
+    private boolean titlesChanged;
+
+    @EventListener
+    public void onBookAdded(BookAdded event) {
+        Book book = new Book();
+        book.setId(event.getBookId());
+        book.setTitle(event.getTitle());
+        book.setAuthor(event.getAuthor());
+        book.setCategory(event.getCategory());
+        added.add(book);
+        facetService.put(event.getBookId(), event.getCategory(), event.getAuthor(), event.getPrice(), event.getStock());
+        titlesChanged = true;
+    }
+
+    @EventListener
+    public void onStockChanged(StockChanged event) {
+        facetService.updateStock(event.getBookId(), event.getStock());
+    }
+
+    @EventListener
+    public void onBookDeleted(BookDeleted event) {
+        // A book added earlier in the batch must not come back after its removal
+        indexAdded();
+        searchIndexService.remove(event.getBookId());
+        catalogCache.evictSearches();
+        facetService.remove(event.getBookId());
+        titlesChanged = true;
+    }
+
+    @EventListener
+    public void onBatchDelivered(OutboxRelay.BatchDelivered event) {
+        indexAdded();
+        if (titlesChanged && event.isCaughtUp()) {
+            titlesChanged = false;
+            suggestionService.requestRebuild();
+        }
+    }
+
+    private void indexAdded() {
+        if (!added.isEmpty()) {
+            searchIndexService.indexAll(added);
+            added.clear();
+            // Results cached while these books were not yet indexed
+            catalogCache.evictSearches();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.demo.service;
+
+/**
+ * Orderings supported by the paginated catalog. Each one is a total order
+ * ending in the book id, which is what makes keyset pagination stable.
+ */
+public enum CatalogSort {
+    NEWEST("newest"),
+    PRICE_ASC("price_asc"),
+    PRICE_DESC("price_desc"),
+    TITLE("title");
+
+    private final String param;
+
+    CatalogSort(String param) {
+        this.param = param;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    public static CatalogSort fromParam(String param) {
+        if (param == null || param.isBlank()) {
+            return NEWEST;
+        }
+        for (CatalogSort sort : values()) {
+            if (sort.param.equalsIgnoreCase(param.trim())) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Unknown sort: " + param);
+    }
+}
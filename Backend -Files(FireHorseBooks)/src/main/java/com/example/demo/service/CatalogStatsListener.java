@@ -0,0 +1,38 @@
+package com.example.demo.service;
+
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.example.demo.event.StockChanged;
+
+/**
+ * Brings the dashboard's stock figures in line with {@code books.stock} from
+ * outbox events, each in a short transaction of its own, so the order that
+ * changed the stock never waits on the stats rows. The committed stock is
+ * re-read rather than taken from the event, so a redelivered event changes
+ * nothing. In ledger mode the rows lag the ledger, and the ledger's flush
+ * reports stock instead. Only called from the relay thread.
+ */
+@Component
+public class CatalogStatsListener {
+
+    @Autowired
+    private CatalogStatsService catalogStatsService;
+
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @EventListener
+    public void onStockChanged(StockChanged event) {
+        if (inventoryLedger.isEnabled()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(
+                status -> catalogStatsService.refreshStock(List.of(event.getBookId())));
+    }
+}
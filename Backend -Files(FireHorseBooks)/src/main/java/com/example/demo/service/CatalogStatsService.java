@@ -0,0 +1,297 @@
+package com.example.demo.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.example.demo.dto.SellerDashboard;
+import com.example.demo.entity.Book;
+import com.example.demo.entity.CategoryStats;
+import com.example.demo.entity.Order;
+import com.example.demo.entity.OrderItem;
+import com.example.demo.repository.BookStatsRepository;
+import com.example.demo.repository.CategoryStatsRepository;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Maintains {@code book_stats} and {@code category_stats} for the seller
+ * dashboard. Books added, books deleted and sales are applied as deltas in
+ * the transaction of the write that causes them, so those totals always match
+ * what committed and the dashboard is a few index reads.
+ *
+ * Stock levels are not: an order would otherwise lock its books' stats rows
+ * and the category row until it commits, queueing every checkout in the
+ * category. They are copied from the committed {@code books.stock} shortly
+ * afterwards instead, by {@link CatalogStatsListener} or, in ledger mode, by
+ * the {@link InventoryLedger} flush.
+ *
+ * Category rows are updated in name order to keep concurrent writers from
+ * deadlocking. A missing category row is inserted in its own transaction
+ * first, so two writers creating the same category cannot both insert it.
+ */
+@Service
+public class CatalogStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogStatsService.class);
+
+    private static final String CATEGORY_DELTA_SQL = "UPDATE category_stats SET books = books + ?, "
+            + "stock_units = stock_units + ?, stock_value = stock_value + ?, "
+            + "units_sold = units_sold + ?, revenue = revenue + ? WHERE category = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookStatsRepository bookStatsRepository;
+
+    @Autowired
+    private CategoryStatsRepository categoryStatsRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${books.dashboard.top-sellers:10}")
+    private int topSellers;
+
+    @Value("${books.dashboard.low-stock-threshold:5}")
+    private int lowStockThreshold;
+
+    @Value("${books.dashboard.low-stock-limit:10}")
+    private int lowStockLimit;
+
+    private TransactionTemplate newTransaction;
+
+    @PostConstruct
+    public void init() {
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Fills the tables once for a catalog that predates them
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        Integer stats = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM book_stats", Integer.class);
+        Integer books = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM books", Integer.class);
+        if (stats != null && stats == 0 && books != null && books > 0) {
+            newTransaction.executeWithoutResult(status -> rebuild());
+            log.info("Catalog stats built for {} books", books);
+        }
+    }
+
+    /**
+     * Recomputes both tables from books, order items and archived sales.
+     * Runs in the caller's transaction.
+     */
+    public void rebuild() {
+        jdbcTemplate.update("DELETE FROM category_stats");
+        jdbcTemplate.update("DELETE FROM book_stats");
+        jdbcTemplate.update("INSERT INTO book_stats "
+                + "(book_id, title, category, price, stock, stock_value, units_sold, revenue) "
+                + "SELECT b.id, b.title, b.category, b.price, b.stock, b.price * b.stock, "
+                + "COALESCE(s.units, 0), COALESCE(s.revenue, 0) FROM books b LEFT JOIN "
+                + "(SELECT book_id, SUM(units) AS units, SUM(revenue) AS revenue FROM "
+                + "(SELECT book_id, quantity AS units, price * quantity AS revenue FROM order_items "
+                + "UNION ALL SELECT book_id, units, revenue FROM archived_book_sales) t "
+                + "GROUP BY book_id) s ON s.book_id = b.id");
+        jdbcTemplate.update("INSERT INTO category_stats "
+                + "(category, books, stock_units, stock_value, units_sold, revenue) "
+                + "SELECT category, COUNT(*), SUM(stock), SUM(stock_value), SUM(units_sold), SUM(revenue) "
+                + "FROM book_stats GROUP BY category");
+    }
+
+    public void booksAdded(Collection<Book> books) {
+        if (books.isEmpty()) {
+            return;
+        }
+        requireTransaction();
+        List<Object[]> rows = new ArrayList<>(books.size());
+        Map<String, Delta> deltas = new TreeMap<>();
+        for (Book book : books) {
+            BigDecimal stockValue = book.getPrice().multiply(BigDecimal.valueOf(book.getStock()));
+            rows.add(new Object[] { book.getId(), book.getTitle(), book.getCategory(), book.getPrice(),
+                    book.getStock(), stockValue });
+            deltas.computeIfAbsent(book.getCategory(), c -> new Delta()).stock(1, book.getStock(), stockValue);
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO book_stats "
+                + "(book_id, title, category, price, stock, stock_value, units_sold, revenue) "
+                + "VALUES (?, ?, ?, ?, ?, ?, 0, 0)", rows);
+        applyCategories(deltas);
+    }
+
+    /**
+     * Copies the committed {@code books.stock} of the given books. Runs in the
+     * caller's transaction; reading the source instead of taking a value from
+     * the caller means a late or repeated refresh cannot restore an old level.
+     */
+    public void refreshStock(Collection<Long> bookIds) {
+        if (bookIds.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> stock = new HashMap<>();
+        String placeholders = String.join(",", Collections.nCopies(bookIds.size(), "?"));
+        jdbcTemplate.query("SELECT id, stock FROM books WHERE id IN (" + placeholders + ")",
+                rs -> {
+                    stock.put(rs.getLong(1), rs.getInt(2));
+                },
+                bookIds.toArray());
+        stockChanged(stock);
+    }
+
+    /** New stock levels by book id. */
+    public void stockChanged(Map<Long, Integer> stock) {
+        if (stock.isEmpty()) {
+            return;
+        }
+        requireTransaction();
+        List<Object[]> updates = new ArrayList<>(stock.size());
+        Map<String, Delta> deltas = new TreeMap<>();
+        // Locked, so the deltas are taken against the values this transaction overwrites
+        String placeholders = String.join(",", Collections.nCopies(stock.size(), "?"));
+        jdbcTemplate.query("SELECT book_id, category, price, stock, stock_value FROM book_stats "
+                + "WHERE book_id IN (" + placeholders + ") FOR UPDATE",
+                rs -> {
+                    int newStock = stock.get(rs.getLong(1));
+                    BigDecimal stockValue = rs.getBigDecimal(3).multiply(BigDecimal.valueOf(newStock));
+                    updates.add(new Object[] { newStock, stockValue, rs.getLong(1) });
+                    deltas.computeIfAbsent(rs.getString(2), c -> new Delta())
+                            .stock(0, newStock - rs.getInt(4), stockValue.subtract(rs.getBigDecimal(5)));
+                },
+                stock.keySet().toArray());
+        updates.sort((a, b) -> Long.compare((Long) a[2], (Long) b[2]));
+        jdbcTemplate.batchUpdate("UPDATE book_stats SET stock = ?, stock_value = ? WHERE book_id = ?", updates);
+        applyCategories(deltas);
+    }
+
+    /** Counts the sales of newly placed orders; their stock follows through {@link #refreshStock}. */
+    public void sold(Collection<Order> orders) {
+        Map<Long, Delta> byBook = new TreeMap<>();
+        Map<String, Delta> byCategory = new TreeMap<>();
+        for (Order order : orders) {
+            for (OrderItem item : order.getItems()) {
+                BigDecimal revenue = item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
+                byBook.computeIfAbsent(item.getBook().getId(), id -> new Delta()).sold(item.getQuantity(), revenue);
+                byCategory.computeIfAbsent(item.getBook().getCategory(), c -> new Delta())
+                        .sold(item.getQuantity(), revenue);
+            }
+        }
+        if (byBook.isEmpty()) {
+            return;
+        }
+        requireTransaction();
+        List<Object[]> updates = new ArrayList<>(byBook.size());
+        byBook.forEach((bookId, delta) -> updates.add(new Object[] { delta.unitsSold, delta.revenue, bookId }));
+        jdbcTemplate.batchUpdate("UPDATE book_stats SET units_sold = units_sold + ?, revenue = revenue + ? "
+                + "WHERE book_id = ?", updates);
+        applyCategories(byCategory);
+    }
+
+    public void bookDeleted(Long bookId) {
+        requireTransaction();
+        Map<String, Delta> deltas = new TreeMap<>();
+        jdbcTemplate.query("SELECT category, stock, stock_value FROM book_stats WHERE book_id = ? FOR UPDATE",
+                rs -> {
+                    deltas.put(rs.getString(1), new Delta().stock(-1, -rs.getInt(2), rs.getBigDecimal(3).negate()));
+                },
+                bookId);
+        jdbcTemplate.update("DELETE FROM book_stats WHERE book_id = ?", bookId);
+        applyCategories(deltas);
+    }
+
+    public SellerDashboard dashboard() {
+        List<CategoryStats> categories = new ArrayList<>();
+        long books = 0;
+        long stockUnits = 0;
+        long unitsSold = 0;
+        BigDecimal stockValue = BigDecimal.ZERO;
+        BigDecimal revenue = BigDecimal.ZERO;
+        for (CategoryStats category : categoryStatsRepository.findAllByRevenue()) {
+            // A category whose books were all deleted before selling anything
+            if (category.getBooks() == 0 && category.getUnitsSold() == 0) {
+                continue;
+            }
+            categories.add(category);
+            books += category.getBooks();
+            stockUnits += category.getStockUnits();
+            unitsSold += category.getUnitsSold();
+            stockValue = stockValue.add(category.getStockValue());
+            revenue = revenue.add(category.getRevenue());
+        }
+        return new SellerDashboard(books, stockUnits, stockValue, unitsSold, revenue, categories,
+                bookStatsRepository.findTopSellers(Limit.of(topSellers)),
+                bookStatsRepository.findLowStock(lowStockThreshold, Limit.of(lowStockLimit)));
+    }
+
+    private void applyCategories(Map<String, Delta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        ensureCategories(deltas.keySet());
+        List<Object[]> updates = new ArrayList<>(deltas.size());
+        deltas.forEach((category, delta) -> updates.add(new Object[] { delta.books, delta.stockUnits,
+                delta.stockValue, delta.unitsSold, delta.revenue, category }));
+        jdbcTemplate.batchUpdate(CATEGORY_DELTA_SQL, updates);
+    }
+
+    private void ensureCategories(Set<String> categories) {
+        Set<String> missing = new HashSet<>(categories);
+        String placeholders = String.join(",", Collections.nCopies(categories.size(), "?"));
+        missing.removeAll(jdbcTemplate.queryForList("SELECT category FROM category_stats WHERE category IN ("
+                + placeholders + ")", String.class, categories.toArray()));
+        for (String category : missing) {
+            try {
+                newTransaction.executeWithoutResult(status -> jdbcTemplate.update("INSERT INTO category_stats "
+                        + "(category, books, stock_units, stock_value, units_sold, revenue) "
+                        + "VALUES (?, 0, 0, 0, 0, 0)", category));
+            } catch (DataIntegrityViolationException e) {
+                // Inserted concurrently
+            }
+        }
+    }
+
+    private static void requireTransaction() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Catalog stats must change inside the transaction making the change");
+        }
+    }
+
+    private static final class Delta {
+        long books;
+        long stockUnits;
+        BigDecimal stockValue = BigDecimal.ZERO;
+        long unitsSold;
+        BigDecimal revenue = BigDecimal.ZERO;
+
+        Delta stock(long books, long units, BigDecimal value) {
+            this.books += books;
+            this.stockUnits += units;
+            this.stockValue = this.stockValue.add(value);
+            return this;
+        }
+
+        Delta sold(long units, BigDecimal revenue) {
+            this.unitsSold += units;
+            this.revenue = this.revenue.add(revenue);
+            return this;
+        }
+    }
+}
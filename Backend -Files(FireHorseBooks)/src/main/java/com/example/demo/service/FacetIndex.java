@@ -0,0 +1,297 @@
+package com.example.demo.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import com.example.demo.dto.FacetQuery;
+
+/**
+ * Bitmap indexes over the catalog: one compressed bitmap of book ids per
+ * category, author and price range, plus one for books in stock. Filtering
+ * is a bitmap intersection and every facet count is an intersection
+ * cardinality, so no query scans the books table.
+ *
+ * <p>Facet counts for a dimension ignore that dimension's own filter, so
+ * selecting one category still shows how many books the other categories
+ * would match.
+ */
+public class FacetIndex {
+
+    public static final String CATEGORY = "category";
+    public static final String AUTHOR = "author";
+    public static final String PRICE = "price";
+    public static final String IN_STOCK = "inStock";
+
+    private final BigDecimal[] priceBounds;
+    private final String[] priceLabels;
+
+    private final Map<String, RoaringBitmap> categories = new HashMap<>();
+    private final Map<String, RoaringBitmap> authors = new HashMap<>();
+    private final Map<String, RoaringBitmap> prices = new HashMap<>();
+    private final RoaringBitmap inStock = new RoaringBitmap();
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Map<Integer, Entry> entries = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * @param priceBounds ascending lower bounds of the price ranges, e.g.
+     *                    {@code 0, 10, 25} gives "0-10", "10-25" and "25+"
+     */
+    public FacetIndex(List<BigDecimal> priceBounds) {
+        this.priceBounds = priceBounds.toArray(new BigDecimal[0]);
+        this.priceLabels = new String[this.priceBounds.length];
+        for (int i = 0; i < this.priceBounds.length; i++) {
+            priceLabels[i] = i + 1 < this.priceBounds.length
+                    ? this.priceBounds[i].toPlainString() + "-" + this.priceBounds[i + 1].toPlainString()
+                    : this.priceBounds[i].toPlainString() + "+";
+        }
+    }
+
+    public void put(Long bookId, String category, String author, BigDecimal price, int stock) {
+        int id = Math.toIntExact(bookId);
+        Entry entry = new Entry(clean(category), clean(author), priceLabel(price), stock > 0);
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            entries.put(id, entry);
+            all.add(id);
+            bitmap(categories, entry.category).add(id);
+            bitmap(authors, entry.author).add(id);
+            bitmap(prices, entry.price).add(id);
+            if (entry.inStock) {
+                inStock.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updateStock(Long bookId, int stock) {
+        int id = Math.toIntExact(bookId);
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(id);
+            if (entry == null) {
+                return;
+            }
+            entries.put(id, new Entry(entry.category, entry.author, entry.price, stock > 0));
+            if (stock > 0) {
+                inStock.add(id);
+            } else {
+                inStock.remove(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(Math.toIntExact(bookId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            categories.clear();
+            authors.clear();
+            prices.clear();
+            inStock.clear();
+            all.clear();
+            entries.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns matching ids (highest id first) for one page, the total match
+     * count, and facet counts. At most {@code maxAuthors} authors are counted.
+     */
+    public Match query(FacetQuery query, int offset, int limit, int maxAuthors) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap category = union(categories, query.getCategories());
+            RoaringBitmap author = union(authors, query.getAuthors());
+            RoaringBitmap price = union(prices, validPriceLabels(query.getPriceRanges()));
+            RoaringBitmap stock = query.isInStockOnly() ? inStock : null;
+
+            RoaringBitmap result = and(all, category, author, price, stock);
+
+            Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+            facets.put(CATEGORY, counts(categories, and(all, author, price, stock), Integer.MAX_VALUE));
+            facets.put(AUTHOR, counts(authors, and(all, category, price, stock), maxAuthors));
+            RoaringBitmap priceBase = and(all, category, author, stock);
+            Map<String, Long> priceCounts = new LinkedHashMap<>();
+            for (String label : priceLabels) {
+                RoaringBitmap bucket = prices.get(label);
+                priceCounts.put(label, bucket == null ? 0L : RoaringBitmap.andCardinality(priceBase, bucket));
+            }
+            facets.put(PRICE, priceCounts);
+            RoaringBitmap stockBase = and(all, category, author, price);
+            long inStockCount = RoaringBitmap.andCardinality(stockBase, inStock);
+            Map<String, Long> stockCounts = new LinkedHashMap<>();
+            stockCounts.put("true", inStockCount);
+            stockCounts.put("false", stockBase.getLongCardinality() - inStockCount);
+            facets.put(IN_STOCK, stockCounts);
+
+            List<Long> ids = new ArrayList<>(limit);
+            IntIterator it = result.getReverseIntIterator();
+            for (int skipped = 0; it.hasNext() && ids.size() < limit; ) {
+                int id = it.next();
+                if (skipped++ >= offset) {
+                    ids.add((long) id);
+                }
+            }
+            return new Match(ids, result.getLongCardinality(), facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(int id) {
+        Entry old = entries.remove(id);
+        if (old == null) {
+            return;
+        }
+        all.remove(id);
+        inStock.remove(id);
+        unset(categories, old.category, id);
+        unset(authors, old.author, id);
+        unset(prices, old.price, id);
+    }
+
+    private static void unset(Map<String, RoaringBitmap> index, String key, int id) {
+        RoaringBitmap bitmap = index.get(key);
+        if (bitmap != null) {
+            bitmap.remove(id);
+            if (bitmap.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static RoaringBitmap bitmap(Map<String, RoaringBitmap> index, String key) {
+        return index.computeIfAbsent(key, k -> new RoaringBitmap());
+    }
+
+    /** Union of the bitmaps for the given values, or null when there is no filter. */
+    private static RoaringBitmap union(Map<String, RoaringBitmap> index, List<String> values) {
+        if (values.isEmpty()) {
+            return null;
+        }
+        RoaringBitmap union = new RoaringBitmap();
+        for (String value : values) {
+            RoaringBitmap bitmap = index.get(clean(value));
+            if (bitmap != null) {
+                union.or(bitmap);
+            }
+        }
+        return union;
+    }
+
+    private static RoaringBitmap and(RoaringBitmap base, RoaringBitmap... filters) {
+        RoaringBitmap result = base.clone();
+        for (RoaringBitmap filter : filters) {
+            if (filter != null) {
+                result.and(filter);
+            }
+        }
+        return result;
+    }
+
+    private static Map<String, Long> counts(Map<String, RoaringBitmap> index, RoaringBitmap base, int max) {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Map.Entry<String, RoaringBitmap> entry : index.entrySet()) {
+            long count = RoaringBitmap.andCardinality(base, entry.getValue());
+            if (count > 0) {
+                counts.put(entry.getKey(), count);
+            }
+        }
+        if (counts.size() <= max) {
+            return counts;
+        }
+        Map<String, Long> top = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(max)
+                .forEach(e -> top.put(e.getKey(), e.getValue()));
+        return top;
+    }
+
+    private List<String> validPriceLabels(List<String> labels) {
+        for (String label : labels) {
+            if (!List.of(priceLabels).contains(label)) {
+                throw new IllegalArgumentException("Unknown price range: " + label);
+            }
+        }
+        return labels;
+    }
+
+    String priceLabel(BigDecimal price) {
+        int bucket = 0;
+        for (int i = 0; i < priceBounds.length; i++) {
+            if (price != null && price.compareTo(priceBounds[i]) >= 0) {
+                bucket = i;
+            }
+        }
+        return priceLabels[bucket];
+    }
+
+    private static String clean(String value) {
+        return value == null ? "" : value.trim();
+    }
+
+    private static final class Entry {
+        final String category;
+        final String author;
+        final String price;
+        final boolean inStock;
+
+        Entry(String category, String author, String price, boolean inStock) {
+            this.category = category;
+            this.author = author;
+            this.price = price;
+            this.inStock = inStock;
+        }
+    }
+
+    /** Result of {@link #query}: one page of ids, the total, and facet counts. */
+    public static class Match {
+        private final List<Long> ids;
+        private final long total;
+        private final Map<String, Map<String, Long>> facets;
+
+        Match(List<Long> ids, long total, Map<String, Map<String, Long>> facets) {
+            this.ids = ids;
+            this.total = total;
+            this.facets = facets;
+        }
+
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public Map<String, Map<String, Long>> getFacets() {
+            return facets;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.demo.service;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import com.example.demo.dto.BookSummary;
+import com.example.demo.dto.FacetQuery;
+import com.example.demo.dto.FacetResult;
+import com.example.demo.repository.BookRepository;
+
+/**
+ * Faceted browsing backed by a {@link FacetIndex}. The index is built on
+ * startup and kept current by {@link CatalogIndexListener} from the catalog
+ * and order events in the outbox; the database is only hit to load the rows
+ * of the requested page.
+ */
+@Service
+public class FacetService {
+
+    private static final Logger log = LoggerFactory.getLogger(FacetService.class);
+    private static final int REBUILD_BATCH = 1000;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Value("${books.facets.max-authors:20}")
+    private int maxAuthors;
+
+    private final FacetIndex index;
+
+    public FacetService(@Value("${books.facets.price-ranges:0,10,25,50,100}") String priceRanges) {
+        this.index = new FacetIndex(Arrays.stream(priceRanges.split(","))
+                .map(String::trim)
+                .map(BigDecimal::new)
+                .collect(Collectors.toList()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        index.clear();
+        long count = 0;
+        Long lastId = 0L;
+        List<BookSummary> batch;
+        do {
+            batch = bookRepository.findPageAfterId(lastId, Limit.of(REBUILD_BATCH));
+            for (BookSummary book : batch) {
+                put(book.getId(), book.getCategory(), book.getAuthor(), book.getPrice(), book.getStock());
+                lastId = book.getId();
+            }
+            count += batch.size();
+        } while (batch.size() == REBUILD_BATCH);
+        log.info("Facet index built with {} books", count);
+    }
+
+    public void put(Long id, String category, String author, BigDecimal price, Integer stock) {
+        index.put(id, category, author, price, stock == null ? 0 : stock);
+    }
+
+    public void updateStock(Long id, int stock) {
+        index.updateStock(id, stock);
+    }
+
+    public void remove(Long id) {
+        index.remove(id);
+    }
+
+    /**
+     * Returns one page of the books matching the query, with facet counts.
+     *
+     * @throws IllegalArgumentException when the page reaches past
+     *         {@link SearchIndexService#MAX_RESULT_WINDOW} matches
+     */
+    public FacetResult browse(FacetQuery query, int page, int size) {
+        long offset = (long) Math.max(page, 0) * size;
+        if (offset + size > SearchIndexService.MAX_RESULT_WINDOW) {
+            throw new IllegalArgumentException("Only the first " + SearchIndexService.MAX_RESULT_WINDOW
+                    + " matches can be paged through; narrow the filters");
+        }
+        FacetIndex.Match match = index.query(query, (int) offset, size, maxAuthors);
+        List<BookSummary> items = match.getIds().isEmpty()
+                ? List.of()
+                : bookRepository.findSummariesByIds(match.getIds());
+        if (!items.isEmpty()) {
+            items.sort(Comparator.comparing(BookSummary::getId).reversed());
+        }
+        return new FacetResult(items, match.getTotal(), match.getFacets());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demo.service;
+
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import com.example.demo.entity.PooledTableIdGenerator;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Moves each {@code id_generators} row past the largest id already in its
+ * table. Tables filled while ids came from AUTO_INCREMENT would otherwise
+ * be handed ids starting at 1 again.
+ */
+@Component
+public class IdGeneratorSeeder {
+
+    private static final Logger log = LoggerFactory.getLogger(IdGeneratorSeeder.class);
+
+    // Segment names match the tables, see @PooledTableId on each entity
+    private static final List<String> TABLES = List.of("books", "orders", "order_items", "cart_items", "users",
+            "outbox_events");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Only so the migrations (including id_generators) have run before we do
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void seed() {
+        for (String table : TABLES) {
+            // The row holds the highest id reserved so far and the next block starts above it;
+            // only ever raised, since ids past MAX(id) may already be reserved by a running instance
+            long lastUsed = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            int updated = jdbcTemplate.update("UPDATE " + PooledTableIdGenerator.TABLE
+                    + " SET " + PooledTableIdGenerator.VALUE_COLUMN + " = ?"
+                    + " WHERE " + PooledTableIdGenerator.SEGMENT_COLUMN + " = ?"
+                    + " AND " + PooledTableIdGenerator.VALUE_COLUMN + " < ?", lastUsed, table, lastUsed);
+            if (updated == 0) {
+                Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + PooledTableIdGenerator.TABLE
+                        + " WHERE " + PooledTableIdGenerator.SEGMENT_COLUMN + " = ?", Integer.class, table);
+                if (rows == 0) {
+                    jdbcTemplate.update("INSERT INTO " + PooledTableIdGenerator.TABLE
+                            + " (" + PooledTableIdGenerator.SEGMENT_COLUMN + ", " + PooledTableIdGenerator.VALUE_COLUMN
+                            + ") VALUES (?, ?)", table, lastUsed);
+                    updated = 1;
+                }
+            }
+            if (updated > 0 && lastUsed > 0) {
+                log.info("Id generator for {} continues after {}", table, lastUsed);
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Content-addressed storage for book images. Objects are identified by the
+ * hex SHA-256 of their bytes, so storing the same image twice is a no-op.
+ */
+public interface ImageStore {
+
+    /** Stores the stream and returns its key. */
+    String put(InputStream in) throws IOException;
+
+    boolean exists(String key);
+
+    long size(String key) throws IOException;
+
+    InputStream open(String key) throws IOException;
+
+    /** Copies {@code count} bytes starting at {@code position} to the target channel. */
+    void transferTo(String key, long position, long count, WritableByteChannel target) throws IOException;
+
+    void delete(String key) throws IOException;
+}
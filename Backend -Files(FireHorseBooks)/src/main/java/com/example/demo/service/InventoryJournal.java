@@ -0,0 +1,182 @@
+package com.example.demo.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only log of inventory ledger changes, split into numbered segment
+ * files. The ledger closes the current segment each time it flushes and
+ * deletes it once the flushed values are committed, so only changes that
+ * never reached the database are replayed after a restart.
+ *
+ * Records are fixed-size (type, book id, value, reservation). A torn record
+ * at the end of a segment, left by a crash mid-write, is ignored.
+ *
+ * A {@link #RESERVE} record is stock taken by an order that has not
+ * committed yet; it only counts once a {@link #COMMIT} record with the same
+ * reservation number follows.
+ */
+public class InventoryJournal implements Closeable {
+
+    public static final byte DELTA = 1;
+    public static final byte SET = 2;
+    public static final byte RESERVE = 3;
+    public static final byte COMMIT = 4;
+
+    private static final int RECORD_SIZE = 1 + Long.BYTES + Long.BYTES + Long.BYTES;
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".log";
+
+    private final Path dir;
+    // A lock rather than a monitor: a virtual thread blocked in force() while
+    // holding a monitor would pin its carrier thread
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile FileChannel channel;
+    private long segment;
+
+    public InventoryJournal(Path dir) throws IOException {
+        this.dir = dir;
+        Files.createDirectories(dir);
+    }
+
+    /** Segment numbers present on disk, oldest first. */
+    public List<Long> segments() throws IOException {
+        List<Long> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, PREFIX + "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    segments.add(Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    // Not ours
+                }
+            }
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+
+    public List<Record> read(long segment) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(path(segment)));
+        List<Record> records = new ArrayList<>();
+        while (bytes.remaining() >= RECORD_SIZE) {
+            records.add(new Record(bytes.get(), bytes.getLong(), bytes.getLong(), bytes.getLong()));
+        }
+        return records;
+    }
+
+    /** Starts appending to the given segment. */
+    public void open(long segment) throws IOException {
+        lock.lock();
+        try {
+            this.channel = FileChannel.open(path(segment),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            this.segment = segment;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes one record. The write reaches the OS before this returns, so it
+     * survives a process crash; {@link #rotate()} forces it to disk.
+     */
+    public void append(byte type, long bookId, long value) throws IOException {
+        append(type, bookId, value, 0);
+    }
+
+    public void append(byte type, long bookId, long value, long reservation) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        record.put(type).putLong(bookId).putLong(value).putLong(reservation).flip();
+        FileChannel target = channel;
+        while (record.hasRemaining()) {
+            target.write(record);
+        }
+    }
+
+    /**
+     * Syncs and closes the current segment and continues in the next one.
+     * Callers must make sure no append runs concurrently.
+     *
+     * @return the number of the segment that was closed
+     */
+    public long rotate() throws IOException {
+        lock.lock();
+        try {
+            long closed = segment;
+            channel.force(false);
+            channel.close();
+            open(closed + 1);
+            return closed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Deletes every closed segment up to and including the given one. */
+    public void deleteThrough(long segment) throws IOException {
+        for (Long existing : segments()) {
+            boolean current = channel != null && existing == this.segment;
+            if (existing <= segment && !current) {
+                Files.deleteIfExists(path(existing));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (channel != null) {
+                channel.force(false);
+                channel.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Path path(long segment) {
+        return dir.resolve(String.format("%s%020d%s", PREFIX, segment, SUFFIX));
+    }
+
+    public static class Record {
+        private final byte type;
+        private final long bookId;
+        private final long value;
+        private final long reservation;
+
+        public Record(byte type, long bookId, long value, long reservation) {
+            this.type = type;
+            this.bookId = bookId;
+            this.value = value;
+            this.reservation = reservation;
+        }
+
+        public byte getType() {
+            return type;
+        }
+
+        public long getBookId() {
+            return bookId;
+        }
+
+        public long getValue() {
+            return value;
+        }
+
+        public long getReservation() {
+            return reservation;
+        }
+    }
+}
@@ -0,0 +1,402 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.example.demo.entity.Book;
+import com.example.demo.entity.InventoryCheckpoint;
+import com.example.demo.repository.InventoryCheckpointRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * In-memory stock counters for {@code books.inventory.mode=ledger}. While
+ * enabled the ledger, not the {@code books.stock} column, decides whether a
+ * reservation succeeds: each book has an atomic counter that is taken with
+ * compare-and-set and never goes below zero, so checkouts on a hot title
+ * contend on one CPU cache line instead of one database row lock.
+ *
+ * Every change is journaled. A reservation is written before its order
+ * commits, numbered, and confirmed by a commit record afterwards; replay
+ * drops reservations that were never confirmed, so a crash before the order
+ * committed does not lose the stock. A scheduled flusher writes the committed
+ * values of changed books to {@code books.stock} in one batch, together with
+ * an {@link InventoryCheckpoint}, and startup replays whatever the journal
+ * holds beyond the checkpoint. The database copy lags the ledger by at most
+ * one flush interval. Only valid with a single application instance.
+ */
+@Service
+public class InventoryLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryLedger.class);
+
+    @Value("${books.inventory.mode:database}")
+    private String mode;
+
+    @Value("${books.inventory.journal-dir:data/inventory}")
+    private String journalDir;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private InventoryCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private CatalogStatsService catalogStatsService;
+
+    private final Map<Long, AtomicLong> counters = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    // Reservations taken but not yet committed or rolled back, by number. The
+    // numbers only need to be unique within a run: startup replays and
+    // deletes every segment a previous run left
+    private final Map<Long, Map<Long, Integer>> open = new ConcurrentHashMap<>();
+    private final AtomicLong reservations = new AtomicLong();
+    // Changes hold the read lock so they can run in parallel; a flush takes
+    // the write lock to cut the journal exactly where its snapshot was taken
+    private final ReentrantReadWriteLock epoch = new ReentrantReadWriteLock();
+    private InventoryJournal journal;
+    private boolean enabled;
+
+    @PostConstruct
+    public void start() throws IOException {
+        enabled = "ledger".equalsIgnoreCase(mode);
+        if (!enabled) {
+            return;
+        }
+        journal = new InventoryJournal(Paths.get(journalDir));
+        recover();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Takes every line or none. Books are taken in id order; if one is short
+     * the ones already taken are given back. When called inside a
+     * transaction the reservation only becomes final when it commits, and the
+     * stock is returned if it rolls back.
+     */
+    public StockReservationService.Reservation reserve(Map<Long, Integer> quantities) {
+        long reservation = reservations.incrementAndGet();
+        Map<Long, Integer> taken = new LinkedHashMap<>();
+        Map<Long, Integer> remaining = new HashMap<>();
+        epoch.readLock().lock();
+        try {
+            for (Map.Entry<Long, Integer> line : new TreeMap<>(quantities).entrySet()) {
+                AtomicLong counter = counter(line.getKey());
+                if (counter == null || !tryTake(counter, line.getValue())) {
+                    giveBack(taken);
+                    return new StockReservationService.Reservation(
+                            List.of(line.getKey()), Collections.emptyMap());
+                }
+                taken.put(line.getKey(), line.getValue());
+                remaining.put(line.getKey(), (int) counter.get());
+            }
+            try {
+                for (Map.Entry<Long, Integer> line : taken.entrySet()) {
+                    journal.append(InventoryJournal.RESERVE, line.getKey(), -line.getValue(), reservation);
+                }
+            } catch (IOException e) {
+                // Lines already written have no commit record, so replay skips them
+                giveBack(taken);
+                throw new UncheckedIOException("Could not journal stock reservation", e);
+            }
+            open.put(reservation, taken);
+        } finally {
+            epoch.readLock().unlock();
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        commit(reservation);
+                    } else {
+                        rollback(reservation);
+                    }
+                }
+            });
+        } else {
+            commit(reservation);
+        }
+        return new StockReservationService.Reservation(Collections.emptyList(), remaining);
+    }
+
+    /**
+     * Overrides a book's stock, e.g. after a delivery was counted. Open
+     * reservations are taken from the new level if they commit.
+     */
+    public void setStock(Long bookId, int stock) {
+        epoch.readLock().lock();
+        try {
+            AtomicLong counter = counters.computeIfAbsent(bookId, id -> new AtomicLong());
+            counter.set(stock - openQuantities().getOrDefault(bookId, 0L));
+            appendQuietly(InventoryJournal.SET, bookId, stock);
+            dirty.add(bookId);
+        } finally {
+            epoch.readLock().unlock();
+        }
+    }
+
+    /** Drops a deleted book; journaled changes for it are skipped on replay. */
+    public void forget(Long bookId) {
+        epoch.readLock().lock();
+        try {
+            counters.remove(bookId);
+            dirty.remove(bookId);
+        } finally {
+            epoch.readLock().unlock();
+        }
+    }
+
+    /** Writes the committed value of every changed book to the database. */
+    @Scheduled(fixedDelayString = "${books.inventory.flush-interval-ms:200}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        Map<Long, Long> values = new HashMap<>();
+        long segment;
+        epoch.writeLock().lock();
+        try {
+            if (dirty.isEmpty()) {
+                return;
+            }
+            // Stock held by open reservations still counts until they commit
+            Map<Long, Long> held = openQuantities();
+            for (Long bookId : dirty) {
+                AtomicLong counter = counters.get(bookId);
+                if (counter != null) {
+                    values.put(bookId, counter.get() + held.getOrDefault(bookId, 0L));
+                }
+            }
+            segment = journal.rotate();
+            dirty.clear();
+            // Open reservations are carried into the new segment, where their
+            // commit records will land, so a replay from there still has them
+            for (Map.Entry<Long, Map<Long, Integer>> reservation : open.entrySet()) {
+                for (Map.Entry<Long, Integer> line : reservation.getValue().entrySet()) {
+                    journal.append(InventoryJournal.RESERVE, line.getKey(), -line.getValue(), reservation.getKey());
+                }
+            }
+        } catch (IOException e) {
+            dirty.addAll(values.keySet());
+            log.warn("Could not rotate inventory journal: {}", e.getMessage());
+            return;
+        } finally {
+            epoch.writeLock().unlock();
+        }
+
+        try {
+            persist(values, segment);
+            journal.deleteThrough(segment);
+        } catch (IOException | RuntimeException e) {
+            // Try again next time; the checkpoint did not move, so a restart
+            // in the meantime still replays this segment
+            dirty.addAll(values.keySet());
+            log.warn("Could not flush inventory ledger: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        flush();
+        journal.close();
+    }
+
+    /**
+     * Applies the journal beyond the checkpoint. A reservation counts at its
+     * commit record, where it became final; one that never got there
+     * belonged to an order that did not commit. A reservation carried into a
+     * later segment by a flush appears twice but is applied once.
+     */
+    private void recover() throws IOException {
+        long applied = checkpointRepository.findById(InventoryCheckpoint.ID)
+                .map(InventoryCheckpoint::getSegment)
+                .orElse(-1L);
+        Map<Long, Long> values = new HashMap<>();
+        Map<Long, Map<Long, Long>> reserved = new HashMap<>();
+        long last = applied;
+        for (Long segment : journal.segments()) {
+            if (segment <= applied) {
+                continue;
+            }
+            for (InventoryJournal.Record record : journal.read(segment)) {
+                if (record.getType() == InventoryJournal.RESERVE) {
+                    reserved.computeIfAbsent(record.getReservation(), r -> new HashMap<>())
+                            .put(record.getBookId(), record.getValue());
+                } else if (record.getType() == InventoryJournal.COMMIT) {
+                    Map<Long, Long> lines = reserved.remove(record.getReservation());
+                    if (lines != null) {
+                        lines.forEach((bookId, delta) -> replay(values, InventoryJournal.DELTA, bookId, delta));
+                    }
+                } else {
+                    replay(values, record.getType(), record.getBookId(), record.getValue());
+                }
+            }
+            last = segment;
+        }
+        if (!reserved.isEmpty()) {
+            log.info("Dropped {} inventory reservations whose orders did not commit", reserved.size());
+        }
+        if (last > applied) {
+            persist(values, last);
+            log.info("Replayed inventory journal through segment {} ({} books)", last, values.size());
+        }
+        journal.deleteThrough(last);
+        journal.open(last + 1);
+    }
+
+    private void replay(Map<Long, Long> values, byte type, Long bookId, long value) {
+        Long base = values.containsKey(bookId) ? values.get(bookId) : loadStock(bookId);
+        if (base == null) {
+            // Book was deleted since
+            return;
+        }
+        values.put(bookId, type == InventoryJournal.SET ? value : base + value);
+    }
+
+    private void persist(Map<Long, Long> values, long segment) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Object[]> args = new ArrayList<>(values.size());
+            values.forEach((bookId, stock) -> args.add(new Object[] { stock, bookId }));
+            jdbcTemplate.batchUpdate("UPDATE books SET stock = ?, version = version + 1 WHERE id = ?", args);
+            checkpointRepository.save(new InventoryCheckpoint(segment));
+            // Orders leave the dashboard's stock to this flush, the first point it is committed
+            Map<Long, Integer> stock = new HashMap<>();
+            values.forEach((bookId, value) -> stock.put(bookId, value.intValue()));
+            catalogStatsService.stockChanged(stock);
+        });
+        // The rows changed behind Hibernate's back
+        jakarta.persistence.Cache cache = entityManagerFactory.getCache();
+        for (Long bookId : values.keySet()) {
+            cache.evict(Book.class, bookId);
+            catalogCache.evictStock(bookId);
+        }
+        if (!values.isEmpty()) {
+            cache.unwrap(org.hibernate.Cache.class).evictQueryRegion("catalog-queries");
+        }
+    }
+
+    private AtomicLong counter(Long bookId) {
+        AtomicLong counter = counters.get(bookId);
+        if (counter != null) {
+            return counter;
+        }
+        Long stock = loadStock(bookId);
+        return stock == null ? null : counters.computeIfAbsent(bookId, id -> new AtomicLong(stock));
+    }
+
+    private Long loadStock(Long bookId) {
+        List<Long> rows = jdbcTemplate.queryForList("SELECT stock FROM books WHERE id = ?", Long.class, bookId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private static boolean tryTake(AtomicLong counter, int quantity) {
+        while (true) {
+            long current = counter.get();
+            if (current < quantity) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current - quantity)) {
+                return true;
+            }
+        }
+    }
+
+    /** Confirms a reservation; from here on replay takes its stock too. */
+    private void commit(long reservation) {
+        epoch.readLock().lock();
+        try {
+            Map<Long, Integer> lines = open.remove(reservation);
+            if (lines == null) {
+                return;
+            }
+            try {
+                journal.append(InventoryJournal.COMMIT, 0, 0, reservation);
+            } catch (IOException e) {
+                // The order is committed either way; the next flush still writes it
+                log.error("Could not journal commit of stock reservation {}: {}", reservation, e.getMessage());
+            }
+            dirty.addAll(lines.keySet());
+        } finally {
+            epoch.readLock().unlock();
+        }
+    }
+
+    /** Returns the stock of a reservation whose order did not commit. */
+    private void rollback(long reservation) {
+        epoch.readLock().lock();
+        try {
+            Map<Long, Integer> lines = open.remove(reservation);
+            if (lines == null) {
+                return;
+            }
+            for (Map.Entry<Long, Integer> line : lines.entrySet()) {
+                AtomicLong counter = counters.get(line.getKey());
+                if (counter != null) {
+                    counter.addAndGet(line.getValue());
+                }
+            }
+        } finally {
+            epoch.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Long> openQuantities() {
+        Map<Long, Long> held = new HashMap<>();
+        for (Map<Long, Integer> lines : open.values()) {
+            lines.forEach((bookId, quantity) -> held.merge(bookId, (long) quantity, Long::sum));
+        }
+        return held;
+    }
+
+    private void giveBack(Map<Long, Integer> taken) {
+        taken.forEach((bookId, quantity) -> counters.get(bookId).addAndGet(quantity));
+    }
+
+    private void appendQuietly(byte type, long bookId, long value) {
+        try {
+            journal.append(type, bookId, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not journal stock change", e);
+        }
+    }
+}
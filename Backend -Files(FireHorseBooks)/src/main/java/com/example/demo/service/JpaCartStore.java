@@ -0,0 +1,177 @@
+package com.example.demo.service;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import com.example.demo.dto.CartLineView;
+import com.example.demo.entity.Book;
+import com.example.demo.entity.CartItem;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.repository.CartRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/** {@link CartStore} on the {@code cart_items} table; every change is written at once. */
+@Service
+@ConditionalOnProperty(name = "books.cart.store", havingValue = "jpa", matchIfMissing = true)
+public class JpaCartStore implements CartStore {
+
+    private static final String UPSERT_SQL = "INSERT INTO cart_items (id, user_id, book_id, quantity, created_at) "
+            + "VALUES (?, ?, ?, ?, ?) ";
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private SessionFactoryImplementor sessionFactory;
+    private IdentifierGenerator idGenerator;
+    private boolean mysql;
+
+    @PostConstruct
+    public void init() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        idGenerator = (IdentifierGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(CartItem.class).getGenerator();
+        mysql = Boolean.TRUE.equals(jdbcTemplate.execute((Connection connection) -> connection.getMetaData()
+                .getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql")));
+    }
+
+    @Override
+    public List<CartItem> findByUserId(Long userId) {
+        return cartRepository.findByUserId(userId);
+    }
+
+    @Override
+    public List<CartItem> findByUserIdIn(Collection<Long> userIds) {
+        return cartRepository.findByUserIdIn(userIds);
+    }
+
+    @Override
+    public List<CartLineView> findLinesByUserId(Long userId) {
+        return cartRepository.findLinesByUserId(userId);
+    }
+
+    // One upsert on uk_cart_items_user_book: a second add of a book raises the
+    // quantity of its line, and concurrent adds cannot create two lines. MySQL
+    // gets the 8.0.19+ row alias rather than the deprecated VALUES()
+    @Override
+    public CartItem add(Long userId, Book book, int quantity) {
+        Long id = nextId();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (mysql) {
+            jdbcTemplate.update(UPSERT_SQL
+                    + "AS new ON DUPLICATE KEY UPDATE quantity = cart_items.quantity + new.quantity",
+                    id, userId, book.getId(), quantity, now);
+        } else {
+            // H2 (tests) has no row alias
+            jdbcTemplate.update(UPSERT_SQL + "ON DUPLICATE KEY UPDATE quantity = quantity + ?",
+                    id, userId, book.getId(), quantity, now, quantity);
+        }
+        return cartRepository.findByUserIdAndBookId(userId, book.getId());
+    }
+
+    // New lines are persisted (batched by Hibernate, ids are pre-allocated);
+    // changed or removed lines go out as JDBC batches
+    @Override
+    public void update(Long userId, Function<Map<Long, Long>, Map<Long, Long>> change) {
+        // bookId -> [cartItemId, quantity]
+        Map<Long, long[]> current = new HashMap<>();
+        Map<Long, Long> quantities = new HashMap<>();
+        for (Object[] row : cartRepository.findQuantitiesByUserId(userId)) {
+            long quantity = ((Number) row[2]).longValue();
+            current.put((Long) row[1], new long[] { (Long) row[0], quantity });
+            quantities.put((Long) row[1], quantity);
+        }
+        Map<Long, Long> target = change.apply(quantities);
+
+        List<CartItem> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        target.forEach((bookId, quantity) -> {
+            long[] line = current.get(bookId);
+            if (line == null) {
+                if (quantity > 0) {
+                    CartItem item = new CartItem();
+                    item.setUserId(userId);
+                    item.setBook(bookRepository.getReferenceById(bookId));
+                    item.setQuantity(quantity.intValue());
+                    inserts.add(item);
+                }
+            } else if (quantity <= 0) {
+                deletes.add(new Object[] { line[0] });
+            } else if (quantity != line[1]) {
+                updates.add(new Object[] { quantity, line[0] });
+            }
+        });
+        cartRepository.saveAll(inserts);
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE cart_items SET quantity = ? WHERE id = ?", updates);
+        }
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate("DELETE FROM cart_items WHERE id = ?", deletes);
+        }
+    }
+
+    @Override
+    public boolean updateQuantity(Long cartItemId, int quantity) {
+        CartItem item = cartRepository.findById(cartItemId).orElse(null);
+        if (item == null) {
+            return false;
+        }
+        if (quantity <= 0) {
+            cartRepository.delete(item);
+        } else {
+            item.setQuantity(quantity);
+            cartRepository.save(item);
+        }
+        return true;
+    }
+
+    @Override
+    public void remove(Long cartItemId) {
+        cartRepository.deleteById(cartItemId);
+    }
+
+    @Override
+    public void clear(Long userId) {
+        List<CartItem> cartItems = cartRepository.findByUserId(userId);
+        cartRepository.deleteAll(cartItems);
+    }
+
+    @Override
+    public void checkedOut(Collection<CartItem> items) {
+        if (!items.isEmpty()) {
+            cartRepository.deleteAllInBatch(items);
+        }
+    }
+
+    // From the same pooled generator as CartItem inserts
+    private Long nextId() {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            return (Long) idGenerator.generate((SharedSessionContractImplementor) session, null);
+        }
+    }
+}
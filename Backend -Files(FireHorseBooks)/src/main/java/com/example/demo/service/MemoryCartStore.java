@@ -0,0 +1,481 @@
+package com.example.demo.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.example.demo.dto.BookSummary;
+import com.example.demo.dto.CartLineView;
+import com.example.demo.entity.Book;
+import com.example.demo.entity.CartItem;
+import com.example.demo.repository.BookRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * {@link CartStore} that keeps carts in memory and writes changed ones back
+ * to {@code cart_items} every {@code books.cart.memory.flush-interval-ms}.
+ * A cart is read from the table on first use and dropped again once it has
+ * been idle for the TTL, or when more than max-carts are held, after its
+ * changes are written. Lines an order consumes are deleted from the table
+ * in the order's own transaction.
+ *
+ * Carts are guarded by striped locks keyed on the user, so changes to one
+ * cart are serialized without a lock object per user. Changes made since
+ * the last write-back are lost if the process dies, and every request for
+ * a user must reach the same instance.
+ */
+@Service
+@ConditionalOnProperty(name = "books.cart.store", havingValue = "memory")
+public class MemoryCartStore implements CartStore {
+
+    private static final Logger log = LoggerFactory.getLogger(MemoryCartStore.class);
+
+    private static final int STRIPES = 64;
+    private static final int WRITE_BATCH = 500;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${books.cart.memory.ttl-ms:1800000}")
+    private long ttlMs;
+
+    @Value("${books.cart.memory.max-carts:100000}")
+    private int maxCarts;
+
+    private final Map<Long, UserCart> carts = new ConcurrentHashMap<>();
+    // Owner of every line of a loaded cart, for the operations that only get a line id
+    private final Map<Long, Long> lineOwners = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private SessionFactoryImplementor sessionFactory;
+    private IdentifierGenerator idGenerator;
+
+    public MemoryCartStore() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    // Lines take ids from the same pooled generator as CartItem inserts
+    @PostConstruct
+    public void init() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        idGenerator = (IdentifierGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(CartItem.class).getGenerator();
+    }
+
+    @Override
+    public List<CartItem> findByUserId(Long userId) {
+        return toItems(Map.of(userId, snapshot(userId)));
+    }
+
+    @Override
+    public List<CartItem> findByUserIdIn(Collection<Long> userIds) {
+        Map<Long, List<Line>> lines = new LinkedHashMap<>();
+        for (Long userId : userIds) {
+            lines.put(userId, snapshot(userId));
+        }
+        return toItems(lines);
+    }
+
+    @Override
+    public List<CartLineView> findLinesByUserId(Long userId) {
+        List<Line> lines = snapshot(userId);
+        if (lines.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<Long> bookIds = new HashSet<>();
+        for (Line line : lines) {
+            bookIds.add(line.bookId);
+        }
+        Map<Long, BookSummary> books = new HashMap<>();
+        for (BookSummary book : bookRepository.findSummariesByIds(bookIds)) {
+            books.put(book.getId(), book);
+        }
+        List<CartLineView> views = new ArrayList<>(lines.size());
+        for (Line line : lines) {
+            BookSummary book = books.get(line.bookId);
+            if (book != null) {
+                views.add(new CartLineView(line.id, book.getId(), book.getTitle(), book.getAuthor(),
+                        book.getPrice(), book.getStock(), book.getImageUrl(), book.isHasImage(),
+                        (int) line.quantity));
+            }
+        }
+        return views;
+    }
+
+    @Override
+    public CartItem add(Long userId, Book book, int quantity) {
+        return withCart(userId, cart -> {
+            Line line = cart.lines.get(book.getId());
+            if (line == null) {
+                line = newLine(userId, book.getId(), quantity);
+                cart.lines.put(book.getId(), line);
+            } else {
+                line.quantity += quantity;
+            }
+            dirty.add(userId);
+            return toItem(userId, line, book);
+        });
+    }
+
+    @Override
+    public void update(Long userId, Function<Map<Long, Long>, Map<Long, Long>> change) {
+        withCart(userId, cart -> {
+            Map<Long, Long> current = new HashMap<>();
+            cart.lines.forEach((bookId, line) -> current.put(bookId, line.quantity));
+            Map<Long, Long> target = change.apply(current);
+            target.forEach((bookId, quantity) -> setQuantity(userId, cart, bookId, quantity));
+            if (!target.isEmpty()) {
+                dirty.add(userId);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public boolean updateQuantity(Long cartItemId, int quantity) {
+        Long userId = owner(cartItemId);
+        if (userId == null) {
+            return false;
+        }
+        return withCart(userId, cart -> {
+            Line line = findLine(cart, cartItemId);
+            if (line == null) {
+                return false;
+            }
+            setQuantity(userId, cart, line.bookId, quantity);
+            dirty.add(userId);
+            return true;
+        });
+    }
+
+    @Override
+    public void remove(Long cartItemId) {
+        updateQuantity(cartItemId, 0);
+    }
+
+    @Override
+    public void clear(Long userId) {
+        withCart(userId, cart -> {
+            if (!cart.lines.isEmpty()) {
+                for (Line line : cart.lines.values()) {
+                    lineOwners.remove(line.id);
+                }
+                cart.lines.clear();
+                dirty.add(userId);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void checkedOut(Collection<CartItem> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        List<Object[]> ids = new ArrayList<>(items.size());
+        Map<Long, List<CartItem>> byUser = new HashMap<>();
+        for (CartItem item : items) {
+            ids.add(new Object[] { item.getId() });
+            byUser.computeIfAbsent(item.getUserId(), id -> new ArrayList<>()).add(item);
+        }
+        // Lines not written back yet simply match no row
+        jdbcTemplate.batchUpdate("DELETE FROM cart_items WHERE id = ?", ids);
+        AfterCommit.run(() -> byUser.forEach((userId, consumed) -> withCart(userId, cart -> {
+            for (CartItem item : consumed) {
+                Line line = cart.lines.get(item.getBook().getId());
+                if (line == null || !line.id.equals(item.getId())) {
+                    continue;
+                }
+                // Raised since the order read the cart: only the ordered units are gone
+                if (line.quantity > item.getQuantity()) {
+                    line.quantity -= item.getQuantity();
+                } else {
+                    cart.lines.remove(line.bookId);
+                    lineOwners.remove(line.id);
+                }
+            }
+            // A write-back that copied the cart before this would put the lines back
+            dirty.add(userId);
+            return null;
+        })));
+    }
+
+    @Scheduled(fixedDelayString = "${books.cart.memory.flush-interval-ms:1000}")
+    public void flush() {
+        writeBack();
+        evict();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writeBack();
+    }
+
+    private void writeBack() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        Map<Long, List<Line>> snapshot = new LinkedHashMap<>();
+        for (Long userId : new ArrayList<>(dirty)) {
+            ReentrantLock lock = lockFor(userId);
+            lock.lock();
+            try {
+                dirty.remove(userId);
+                UserCart cart = carts.get(userId);
+                snapshot.put(userId, cart == null ? List.of() : copy(cart));
+            } finally {
+                lock.unlock();
+            }
+            if (snapshot.size() == WRITE_BATCH) {
+                write(snapshot);
+                snapshot = new LinkedHashMap<>();
+            }
+        }
+        if (!snapshot.isEmpty()) {
+            write(snapshot);
+        }
+    }
+
+    // Replaces each user's rows with the copied lines
+    private void write(Map<Long, List<Line>> snapshot) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Set<Long> bookIds = new HashSet<>();
+                snapshot.values().forEach(lines -> lines.forEach(line -> bookIds.add(line.bookId)));
+                // A book deleted since it was added to a cart would fail the whole batch
+                Set<Long> existing = bookIds.isEmpty()
+                        ? Set.of()
+                        : new HashSet<>(bookRepository.findExistingIds(bookIds));
+
+                List<Object[]> deletes = new ArrayList<>(snapshot.size());
+                List<Object[]> inserts = new ArrayList<>();
+                snapshot.forEach((userId, lines) -> {
+                    deletes.add(new Object[] { userId });
+                    for (Line line : lines) {
+                        if (existing.contains(line.bookId)) {
+                            inserts.add(new Object[] { line.id, userId, line.bookId, line.quantity, line.createdAt });
+                        }
+                    }
+                });
+                jdbcTemplate.batchUpdate("DELETE FROM cart_items WHERE user_id = ?", deletes);
+                if (!inserts.isEmpty()) {
+                    jdbcTemplate.batchUpdate("INSERT INTO cart_items (id, user_id, book_id, quantity, created_at) "
+                            + "VALUES (?, ?, ?, ?, ?)", inserts);
+                }
+            });
+        } catch (RuntimeException e) {
+            dirty.addAll(snapshot.keySet());
+            log.warn("Writing back {} carts failed, will retry: {}", snapshot.size(), e.getMessage());
+        }
+    }
+
+    // Idle carts go first; when over max-carts the least recently used ones go too
+    private void evict() {
+        long idleSince = System.currentTimeMillis() - ttlMs;
+        List<Map.Entry<Long, UserCart>> entries = new ArrayList<>(carts.entrySet());
+        int excess = entries.size() - maxCarts;
+        if (excess > 0) {
+            entries.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+        }
+        int evicted = 0;
+        for (Map.Entry<Long, UserCart> entry : entries) {
+            if ((entry.getValue().lastAccess < idleSince || evicted < excess) && evictIfClean(entry.getKey())) {
+                evicted++;
+            }
+        }
+    }
+
+    private boolean evictIfClean(Long userId) {
+        ReentrantLock lock = lockFor(userId);
+        lock.lock();
+        try {
+            if (dirty.contains(userId)) {
+                return false;
+            }
+            UserCart cart = carts.remove(userId);
+            if (cart != null) {
+                for (Line line : cart.lines.values()) {
+                    lineOwners.remove(line.id);
+                }
+            }
+            return cart != null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private <T> T withCart(Long userId, Function<UserCart, T> action) {
+        ReentrantLock lock = lockFor(userId);
+        lock.lock();
+        try {
+            return action.apply(cart(userId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the user's lock
+    private UserCart cart(Long userId) {
+        UserCart cart = carts.get(userId);
+        if (cart == null) {
+            cart = new UserCart();
+            List<Line> lines = jdbcTemplate.query(
+                    "SELECT id, book_id, quantity, created_at FROM cart_items WHERE user_id = ? ORDER BY id",
+                    (rs, rowNum) -> new Line(rs.getLong(1), rs.getLong(2), rs.getLong(3),
+                            rs.getObject(4, LocalDateTime.class)),
+                    userId);
+            for (Line line : lines) {
+                cart.lines.put(line.bookId, line);
+                lineOwners.put(line.id, userId);
+            }
+            carts.put(userId, cart);
+        }
+        cart.lastAccess = System.currentTimeMillis();
+        return cart;
+    }
+
+    private List<Line> snapshot(Long userId) {
+        return withCart(userId, MemoryCartStore::copy);
+    }
+
+    private static List<Line> copy(UserCart cart) {
+        List<Line> lines = new ArrayList<>(cart.lines.size());
+        for (Line line : cart.lines.values()) {
+            lines.add(new Line(line.id, line.bookId, line.quantity, line.createdAt));
+        }
+        return lines;
+    }
+
+    private Long owner(Long cartItemId) {
+        Long userId = lineOwners.get(cartItemId);
+        if (userId != null) {
+            return userId;
+        }
+        // The cart is not loaded; the line can only be in the table
+        List<Long> owners = jdbcTemplate.queryForList("SELECT user_id FROM cart_items WHERE id = ?",
+                Long.class, cartItemId);
+        return owners.isEmpty() ? null : owners.get(0);
+    }
+
+    private static Line findLine(UserCart cart, Long cartItemId) {
+        for (Line line : cart.lines.values()) {
+            if (line.id.equals(cartItemId)) {
+                return line;
+            }
+        }
+        return null;
+    }
+
+    private void setQuantity(Long userId, UserCart cart, Long bookId, long quantity) {
+        Line line = cart.lines.get(bookId);
+        if (quantity <= 0) {
+            if (line != null) {
+                cart.lines.remove(bookId);
+                lineOwners.remove(line.id);
+            }
+        } else if (line == null) {
+            cart.lines.put(bookId, newLine(userId, bookId, quantity));
+        } else {
+            line.quantity = quantity;
+        }
+    }
+
+    private Line newLine(Long userId, Long bookId, long quantity) {
+        Long id;
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            id = (Long) idGenerator.generate((SharedSessionContractImplementor) session, null);
+        }
+        lineOwners.put(id, userId);
+        return new Line(id, bookId, quantity, LocalDateTime.now());
+    }
+
+    private List<CartItem> toItems(Map<Long, List<Line>> linesByUser) {
+        Set<Long> bookIds = new HashSet<>();
+        linesByUser.values().forEach(lines -> lines.forEach(line -> bookIds.add(line.bookId)));
+        Map<Long, Book> books = new HashMap<>();
+        if (!bookIds.isEmpty()) {
+            for (Book book : bookRepository.findAllById(bookIds)) {
+                books.put(book.getId(), book);
+            }
+        }
+        List<CartItem> items = new ArrayList<>();
+        linesByUser.forEach((userId, lines) -> {
+            for (Line line : lines) {
+                Book book = books.get(line.bookId);
+                if (book != null) {
+                    items.add(toItem(userId, line, book));
+                }
+            }
+        });
+        return items;
+    }
+
+    private static CartItem toItem(Long userId, Line line, Book book) {
+        CartItem item = new CartItem();
+        item.setId(line.id);
+        item.setUserId(userId);
+        item.setBook(book);
+        item.setQuantity((int) line.quantity);
+        item.setCreatedAt(line.createdAt);
+        return item;
+    }
+
+    private ReentrantLock lockFor(Long userId) {
+        return stripes[Math.floorMod(Long.hashCode(userId), STRIPES)];
+    }
+
+    private static final class UserCart {
+        // By book id, oldest line first
+        final Map<Long, Line> lines = new LinkedHashMap<>();
+        volatile long lastAccess;
+    }
+
+    private static final class Line {
+        final Long id;
+        final Long bookId;
+        long quantity;
+        final LocalDateTime createdAt;
+
+        Line(Long id, Long bookId, long quantity, LocalDateTime createdAt) {
+            this.id = id;
+            this.bookId = bookId;
+            this.quantity = quantity;
+            this.createdAt = createdAt;
+        }
+    }
+}
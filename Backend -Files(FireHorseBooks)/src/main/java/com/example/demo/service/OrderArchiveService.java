@@ -0,0 +1,211 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.example.demo.dto.OrderLineView;
+import com.example.demo.dto.OrderSummaryView;
+import com.example.demo.entity.ArchivedOrder;
+import com.example.demo.repository.ArchivedOrderRepository;
+import com.example.demo.repository.OrderRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Moves orders older than {@code books.orders.archive.after-days} out of
+ * {@code orders} and {@code order_items} into {@code orders_archive}, one
+ * row per order with its lines folded into a JSON column. The hot tables
+ * then only hold recent orders, which keeps their indexes small.
+ *
+ * Orders move oldest first, so every archived order sorts before every
+ * live one and order history can page from one table into the other with
+ * the same cursor. Per-book totals of what was archived go to
+ * {@code archived_book_sales} so sales summed from order items stay whole.
+ */
+@Service
+public class OrderArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiveService.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${books.orders.archive.after-days:365}")
+    private int afterDays;
+
+    @Value("${books.orders.archive.batch-size:500}")
+    private int batchSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        // Sales analytics rebuilds its daily window from live orders
+        if (afterDays < SalesCounters.DAYS) {
+            throw new IllegalStateException("books.orders.archive.after-days must be at least " + SalesCounters.DAYS);
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${books.orders.archive.cron:0 30 3 * * *}")
+    public void archiveOldOrders() {
+        LocalDateTime horizon = LocalDateTime.now().minusDays(afterDays);
+        long started = System.nanoTime();
+        int total = 0;
+        int moved;
+        // One transaction per batch keeps locks and undo short
+        do {
+            moved = transactionTemplate.execute(status -> archiveBatch(horizon));
+            total += moved;
+        } while (moved > 0);
+        if (total > 0) {
+            log.info("Archived {} orders created before {} in {} ms",
+                    total, horizon, (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    /**
+     * Moves up to one batch of the oldest orders created before the horizon
+     * and returns how many moved. Runs in the caller's transaction.
+     */
+    public int archiveBatch(LocalDateTime horizon) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Orders must be archived inside a transaction");
+        }
+        List<Long> candidates = orderRepository.findIdsCreatedBefore(horizon, Limit.of(batchSize));
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(",", Collections.nCopies(candidates.size(), "?"));
+        Object[] ids = candidates.toArray();
+
+        // Locked, so an order another archiver moved first is skipped rather than copied twice
+        Map<Long, Object[]> orders = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT id, user_id, order_date, total_amount, status, created_at, request_id "
+                + "FROM orders WHERE id IN (" + placeholders + ") FOR UPDATE",
+                rs -> {
+                    orders.put(rs.getLong(1), new Object[] { rs.getLong(1), rs.getLong(2), rs.getDate(3),
+                            rs.getBigDecimal(4), rs.getString(5), rs.getTimestamp(6), rs.getString(7) });
+                },
+                ids);
+        if (orders.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, ArrayNode> lines = new LinkedHashMap<>();
+        Map<Long, long[]> units = new TreeMap<>();
+        Map<Long, BigDecimal> revenue = new TreeMap<>();
+        jdbcTemplate.query("SELECT order_id, book_id, title, price, quantity FROM order_items "
+                + "WHERE order_id IN (" + placeholders + ") ORDER BY id",
+                rs -> {
+                    long bookId = rs.getLong(2);
+                    BigDecimal price = rs.getBigDecimal(4);
+                    int quantity = rs.getInt(5);
+                    lines.computeIfAbsent(rs.getLong(1), id -> MAPPER.createArrayNode())
+                            .addArray().add(bookId).add(rs.getString(3)).add(price.toPlainString()).add(quantity);
+                    units.computeIfAbsent(bookId, id -> new long[1])[0] += quantity;
+                    revenue.merge(bookId, price.multiply(BigDecimal.valueOf(quantity)), BigDecimal::add);
+                },
+                ids);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(orders.size());
+        for (Object[] order : orders.values()) {
+            ArrayNode items = lines.getOrDefault((Long) order[0], MAPPER.createArrayNode());
+            Object[] row = new Object[9];
+            System.arraycopy(order, 0, row, 0, 7);
+            row[7] = items.toString();
+            row[8] = now;
+            rows.add(row);
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO orders_archive (id, user_id, order_date, total_amount, status, "
+                + "created_at, request_id, items, archived_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        addBookSales(units, revenue);
+
+        String locked = String.join(",", Collections.nCopies(orders.size(), "?"));
+        Object[] lockedIds = orders.keySet().toArray();
+        jdbcTemplate.update("DELETE FROM order_items WHERE order_id IN (" + locked + ")", lockedIds);
+        jdbcTemplate.update("DELETE FROM orders WHERE id IN (" + locked + ")", lockedIds);
+        return orders.size();
+    }
+
+    /** Archived orders of a user, newest first, starting after the cursor when there is one. */
+    public List<OrderSummaryView> findHistory(Long userId, OrderHistoryCursor cursor, int limit) {
+        List<ArchivedOrder> archived = cursor == null
+                ? archivedOrderRepository.findHistory(userId, Limit.of(limit))
+                : archivedOrderRepository.findHistoryBefore(userId, cursor.getCreatedAt(), cursor.getId(),
+                        Limit.of(limit));
+        List<OrderSummaryView> orders = new ArrayList<>(archived.size());
+        for (ArchivedOrder order : archived) {
+            OrderSummaryView view = new OrderSummaryView(order.getId(), order.getOrderDate(),
+                    order.getTotalAmount(), order.getStatus(), order.getCreatedAt());
+            try {
+                for (JsonNode line : MAPPER.readTree(order.getItems())) {
+                    view.getItems().add(new OrderLineView(order.getId(), line.get(0).asLong(),
+                            line.get(1).asText(), new BigDecimal(line.get(2).asText()), line.get(3).asInt()));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unreadable items of archived order " + order.getId(), e);
+            }
+            orders.add(view);
+        }
+        return orders;
+    }
+
+    // Books in id order, like every other batch of row updates
+    private void addBookSales(Map<Long, long[]> units, Map<Long, BigDecimal> revenue) {
+        if (units.isEmpty()) {
+            return;
+        }
+        String placeholders = String.join(",", Collections.nCopies(units.size(), "?"));
+        Set<Long> existing = new HashSet<>(jdbcTemplate.queryForList("SELECT book_id FROM archived_book_sales "
+                + "WHERE book_id IN (" + placeholders + ") FOR UPDATE", Long.class, units.keySet().toArray()));
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        units.forEach((bookId, sold) -> {
+            if (existing.contains(bookId)) {
+                updates.add(new Object[] { sold[0], revenue.get(bookId), bookId });
+            } else {
+                inserts.add(new Object[] { bookId, sold[0], revenue.get(bookId) });
+            }
+        });
+        jdbcTemplate.batchUpdate("UPDATE archived_book_sales SET units = units + ?, revenue = revenue + ? "
+                + "WHERE book_id = ?", updates);
+        jdbcTemplate.batchUpdate("INSERT INTO archived_book_sales (book_id, units, revenue) VALUES (?, ?, ?)",
+                inserts);
+    }
+}
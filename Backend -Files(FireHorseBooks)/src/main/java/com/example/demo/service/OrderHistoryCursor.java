@@ -0,0 +1,49 @@
+package com.example.demo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import com.example.demo.dto.OrderSummaryView;
+
+/**
+ * Position of the last order of a history page: its creation time and the
+ * id that breaks ties. Serialized as an opaque URL-safe string. Live and
+ * archived orders share the key, so one cursor pages through both.
+ */
+public class OrderHistoryCursor {
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    private OrderHistoryCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static OrderHistoryCursor after(OrderSummaryView order) {
+        return new OrderHistoryCursor(order.getCreatedAt(), order.getId());
+    }
+
+    public static OrderHistoryCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("_", 2);
+            return new OrderHistoryCursor(LocalDateTime.parse(parts[1]), Long.valueOf(parts[0]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        String raw = id + "_" + createdAt;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
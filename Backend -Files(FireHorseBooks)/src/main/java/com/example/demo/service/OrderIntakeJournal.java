@@ -0,0 +1,150 @@
+package com.example.demo.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import com.example.demo.dto.OrderRequest;
+
+/**
+ * Append-only log of checkouts accepted by {@link OrderIntakeService}:
+ * one {@code A <requestId> <userId> <acceptedAtMillis>} line per accepted
+ * request and one {@code D <requestId>} line once it is placed or
+ * rejected. Writes reach the OS before returning, so they survive a
+ * process crash. Requests without a D line are replayed on startup; a torn
+ * last line is ignored.
+ */
+public class OrderIntakeJournal implements Closeable {
+
+    private static final String FILE = "intake.log";
+
+    private final Path file;
+    private final ReentrantLock lock = new ReentrantLock();
+    private FileChannel channel;
+
+    public OrderIntakeJournal(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        this.file = dir.resolve(FILE);
+    }
+
+    /** Requests accepted but never finished, in the order they were accepted. */
+    public List<OrderRequest> pending() throws IOException {
+        Map<String, OrderRequest> pending = new LinkedHashMap<>();
+        if (!Files.exists(file)) {
+            return new ArrayList<>();
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(" ");
+                try {
+                    if (parts[0].equals("A") && parts.length == 4) {
+                        LocalDateTime acceptedAt = LocalDateTime.ofInstant(
+                                Instant.ofEpochMilli(Long.parseLong(parts[3])), ZoneId.systemDefault());
+                        pending.put(parts[1], new OrderRequest(parts[1], Long.valueOf(parts[2]), acceptedAt));
+                    } else if (parts[0].equals("D") && parts.length == 2) {
+                        pending.remove(parts[1]);
+                    }
+                } catch (NumberFormatException e) {
+                    // torn line
+                }
+            }
+        }
+        return new ArrayList<>(pending.values());
+    }
+
+    /**
+     * Replaces the journal with one holding only the unfinished requests,
+     * then appends to it. {@code unfinished} is read under the journal lock,
+     * so a request accepted concurrently is either in it or appended after.
+     */
+    public void rewrite(Supplier<Collection<OrderRequest>> unfinished) throws IOException {
+        lock.lock();
+        try {
+            Path temp = file.resolveSibling(FILE + ".tmp");
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                StringBuilder lines = new StringBuilder();
+                for (OrderRequest request : unfinished.get()) {
+                    lines.append(acceptedLine(request));
+                }
+                write(out, lines.toString());
+                out.force(false);
+            }
+            if (channel != null) {
+                channel.close();
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void accepted(OrderRequest request) throws IOException {
+        append(acceptedLine(request));
+    }
+
+    public void done(Collection<String> requestIds) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (String requestId : requestIds) {
+            lines.append("D ").append(requestId).append('\n');
+        }
+        append(lines.toString());
+    }
+
+    public long size() throws IOException {
+        return Files.size(file);
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (channel != null) {
+                channel.force(false);
+                channel.close();
+                channel = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void append(String lines) throws IOException {
+        lock.lock();
+        try {
+            write(channel, lines);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String acceptedLine(OrderRequest request) {
+        long acceptedAt = request.getAcceptedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return "A " + request.getId() + " " + request.getUserId() + " " + acceptedAt + "\n";
+    }
+
+    private static void write(FileChannel target, String lines) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(lines.getBytes(StandardCharsets.UTF_8));
+        while (bytes.hasRemaining()) {
+            target.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import com.example.demo.dto.OrderRequest;
+import com.example.demo.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Checkout intake. A checkout is journaled and put on a bounded queue, and
+ * the caller gets a request id to poll right away; one worker thread
+ * drains the queue and places up to {@code books.orders.intake.batch-size}
+ * orders per transaction through {@link OrderService#placeOrders}.
+ *
+ * Retried checkouts carrying the same idempotency key map to the same
+ * request id, and every order records the request that produced it, so a
+ * request is placed at most once even when it is replayed from the journal
+ * after a crash. Statuses and the journal are local: only safe with a
+ * single application instance.
+ */
+@Service
+public class OrderIntakeService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderIntakeService.class);
+
+    // Rewrite the journal once it grows past this and nothing is waiting
+    private static final long COMPACT_BYTES = 1024 * 1024;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Value("${books.orders.intake.enabled:true}")
+    private boolean enabled;
+
+    @Value("${books.orders.intake.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${books.orders.intake.batch-size:50}")
+    private int batchSize;
+
+    @Value("${books.orders.intake.journal-dir:data/order-intake}")
+    private String journalDir;
+
+    @Value("${books.orders.intake.status-retention-ms:600000}")
+    private long statusRetentionMs;
+
+    // Unfinished requests, and finished ones until their status has been kept long enough
+    private final Map<String, OrderRequest> requests = new ConcurrentHashMap<>();
+    private final Queue<OrderRequest> finished = new ConcurrentLinkedQueue<>();
+    private BlockingQueue<OrderRequest> queue;
+    private List<OrderRequest> recovered = List.of();
+    private OrderIntakeJournal journal;
+    private Thread worker;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        journal = new OrderIntakeJournal(Paths.get(journalDir));
+        recovered = journal.pending();
+        for (OrderRequest request : recovered) {
+            requests.put(request.getId(), request);
+        }
+        List<OrderRequest> unfinished = recovered;
+        journal.rewrite(() -> unfinished);
+    }
+
+    // Orders need the ledger, id generators and caches, so placing waits for startup to finish
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWorker() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "order-intake");
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        if (worker != null) {
+            // Lets the current batch commit; whatever is still queued is replayed on the next start
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        journal.close();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Accepts a checkout for the user's current cart. With an idempotency
+     * key, repeating the call returns the request accepted the first time
+     * instead of queuing another one.
+     *
+     * @throws IllegalStateException when the queue is full
+     */
+    public OrderRequest submit(Long userId, String idempotencyKey) {
+        String requestId;
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            // A fresh id cannot have been seen before
+            requestId = UUID.randomUUID().toString();
+        } else {
+            requestId = UUID.nameUUIDFromBytes((userId + ":" + idempotencyKey).getBytes(StandardCharsets.UTF_8))
+                    .toString();
+            OrderRequest known = getStatus(requestId);
+            if (known != null) {
+                return known;
+            }
+        }
+
+        OrderRequest request = new OrderRequest(requestId, userId, LocalDateTime.now());
+        OrderRequest raced = requests.putIfAbsent(requestId, request);
+        if (raced != null) {
+            return raced;
+        }
+        try {
+            journal.accepted(request);
+        } catch (IOException e) {
+            requests.remove(requestId);
+            throw new UncheckedIOException("Could not journal checkout", e);
+        }
+        if (!queue.offer(request)) {
+            requests.remove(requestId);
+            markDone(List.of(requestId));
+            throw new IllegalStateException("Too many checkouts in progress, please try again");
+        }
+        return request;
+    }
+
+    /** Progress of a request, or null if it is unknown (or was rejected long ago). */
+    public OrderRequest getStatus(String requestId) {
+        OrderRequest request = requests.get(requestId);
+        if (request != null) {
+            return request;
+        }
+        // Finished before a restart or before the retention ran out: placed orders are on record
+        List<Object[]> rows = orderRepository.findByRequestIdForStatus(requestId);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Object[] row = rows.get(0);
+        OrderRequest placed = new OrderRequest(requestId, (Long) row[1], (LocalDateTime) row[2]);
+        placed.placed((Long) row[0]);
+        return placed;
+    }
+
+    private void run() {
+        if (!recovered.isEmpty()) {
+            log.info("Placing {} checkouts recovered from the intake journal", recovered.size());
+            for (int i = 0; i < recovered.size(); i += batchSize) {
+                process(recovered.subList(i, Math.min(i + batchSize, recovered.size())));
+            }
+            recovered = List.of();
+        }
+        while (running) {
+            OrderRequest first;
+            try {
+                first = queue.poll(500, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (first == null) {
+                evictFinished();
+                compactIfIdle();
+                continue;
+            }
+            List<OrderRequest> batch = new ArrayList<>(batchSize);
+            batch.add(first);
+            queue.drainTo(batch, batchSize - 1);
+            process(batch);
+            evictFinished();
+        }
+    }
+
+    private void process(List<OrderRequest> batch) {
+        batch.forEach(OrderRequest::processing);
+        try {
+            apply(batch, orderService.placeOrders(batch));
+        } catch (RuntimeException e) {
+            // Find the request that breaks the batch instead of failing all of them
+            log.warn("Order batch of {} failed ({}); placing one at a time", batch.size(), e.getMessage());
+            for (OrderRequest request : batch) {
+                try {
+                    apply(List.of(request), orderService.placeOrders(List.of(request)));
+                } catch (RuntimeException single) {
+                    log.error("Checkout {} failed", request.getId(), single);
+                    request.rejected("Order could not be placed: " + single.getMessage());
+                }
+            }
+        }
+        List<String> ids = new ArrayList<>(batch.size());
+        for (OrderRequest request : batch) {
+            ids.add(request.getId());
+            finished.add(request);
+        }
+        markDone(ids);
+    }
+
+    private static void apply(List<OrderRequest> batch, OrderService.BatchResult result) {
+        for (OrderRequest request : batch) {
+            Long orderId = result.getOrderIds().get(request.getId());
+            if (orderId != null) {
+                request.placed(orderId);
+            } else {
+                request.rejected(result.getErrors().get(request.getId()));
+            }
+        }
+    }
+
+    private void markDone(List<String> ids) {
+        try {
+            journal.done(ids);
+        } catch (IOException e) {
+            // Replayed on restart; placed ones are recognised by their request id
+            log.error("Could not journal completion of {} checkouts", ids.size(), e);
+        }
+    }
+
+    private void evictFinished() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(statusRetentionMs * 1_000_000);
+        OrderRequest oldest;
+        while ((oldest = finished.peek()) != null && oldest.getCompletedAt().isBefore(cutoff)) {
+            finished.poll();
+            requests.remove(oldest.getId());
+        }
+    }
+
+    private void compactIfIdle() {
+        try {
+            if (queue.isEmpty() && journal.size() > COMPACT_BYTES) {
+                journal.rewrite(() -> requests.values().stream().filter(r -> !r.isDone()).toList());
+            }
+        } catch (IOException e) {
+            log.warn("Could not compact the order intake journal: {}", e.getMessage());
+        }
+    }
+}
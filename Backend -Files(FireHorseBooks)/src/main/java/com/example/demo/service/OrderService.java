@@ -3,17 +3,31 @@ package com.example.demo.service;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.example.demo.dto.OrderHistorySlice;
+import com.example.demo.dto.OrderLineView;
+import com.example.demo.dto.OrderRequest;
+import com.example.demo.dto.OrderSummaryView;
 import com.example.demo.entity.Book;
 import com.example.demo.entity.CartItem;
 import com.example.demo.entity.OrderItem;
 import com.example.demo.entity.Order;
-import com.example.demo.repository.BookRepository;
-import com.example.demo.repository.CartRepository;
+import com.example.demo.event.OrderPlaced;
+import com.example.demo.event.StockChanged;
 import com.example.demo.repository.OrderRepository;
-import jakarta.transaction.Transactional;
 
 @Service
 public class OrderService {
@@ -21,42 +35,173 @@ public class OrderService {
     @Autowired
     private OrderRepository orderRepository;
     @Autowired
-    private CartRepository cartRepository;
+    private CartStore cartStore;
     @Autowired
-    private BookRepository bookRepository;
+    private StockReservationService stockReservationService;
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private CatalogStatsService catalogStatsService;
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+    @Autowired
+    private CatalogCache catalogCache;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${books.orders.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${books.orders.retry-backoff-ms:20}")
+    private long retryBackoffMs;
 
-    @Transactional
+    @Value("${books.orders.history.default-page-size:20}")
+    private int defaultHistoryPageSize;
+
+    @Value("${books.orders.history.max-page-size:100}")
+    private int maxHistoryPageSize;
+
+    /**
+     * Places the order in its own transaction, retrying when the database
+     * reports a lock conflict (deadlock, lock timeout, stale version).
+     * Running out of stock is not retried.
+     */
     public Order placeOrder(Long userId) {
-        List<CartItem> cartItems = cartRepository.findByUserId(userId);
+        for (int attempt = 1;; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> createOrder(userId));
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    /**
+     * Places a batch of queued checkouts in one transaction, retried as a
+     * whole on lock conflicts. Carts are loaded in one query, each order
+     * takes its stock (all lines or none) and the orders go out as batched
+     * inserts. A checkout that cannot be placed is rejected without
+     * affecting the rest; one that already produced an order (replayed
+     * after a crash) reports that order instead of placing another.
+     */
+    public BatchResult placeOrders(List<OrderRequest> requests) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> createOrders(requests));
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    private Order createOrder(Long userId) {
+        List<CartItem> cartItems = cartStore.findByUserId(userId);
+        Order order = buildOrder(userId, cartItems);
+        Order savedOrder = orderRepository.save(order);
+        outboxService.publish(orderPlaced(savedOrder));
+        catalogStatsService.sold(List.of(savedOrder));
+
+        // BUG FIX: Clear the cart after successful order
+        cartStore.checkedOut(cartItems);
+
+        return savedOrder;
+    }
+
+    private BatchResult createOrders(List<OrderRequest> requests) {
+        BatchResult result = new BatchResult();
+        List<String> requestIds = new ArrayList<>();
+        Set<Long> userIds = new HashSet<>();
+        for (OrderRequest request : requests) {
+            requestIds.add(request.getId());
+            userIds.add(request.getUserId());
+        }
+        Map<String, Long> existing = new HashMap<>();
+        for (Object[] row : orderRepository.findIdsByRequestIds(requestIds)) {
+            existing.put((String) row[0], (Long) row[1]);
+        }
+        Map<Long, List<CartItem>> carts = new HashMap<>();
+        for (CartItem item : cartStore.findByUserIdIn(userIds)) {
+            carts.computeIfAbsent(item.getUserId(), id -> new ArrayList<>()).add(item);
+        }
+
+        Map<String, Order> orders = new LinkedHashMap<>();
+        List<CartItem> checkedOut = new ArrayList<>();
+        for (OrderRequest request : requests) {
+            Long orderId = existing.get(request.getId());
+            if (orderId != null) {
+                result.orderIds.put(request.getId(), orderId);
+                continue;
+            }
+            // A second checkout by the same user in this batch finds the cart already used
+            List<CartItem> cartItems = carts.remove(request.getUserId());
+            try {
+                Order order = buildOrder(request.getUserId(), cartItems);
+                order.setRequestId(request.getId());
+                orders.put(request.getId(), order);
+                checkedOut.addAll(cartItems);
+            } catch (DataAccessException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                result.errors.put(request.getId(), e.getMessage());
+            }
+        }
+
+        orderRepository.saveAll(orders.values());
+        for (Order order : orders.values()) {
+            outboxService.publish(orderPlaced(order));
+        }
+        catalogStatsService.sold(orders.values());
+        cartStore.checkedOut(checkedOut);
+        orders.forEach((requestId, order) -> result.orderIds.put(requestId, order.getId()));
+        return result;
+    }
 
+    private Order buildOrder(Long userId, List<CartItem> cartItems) {
         if (cartItems == null || cartItems.isEmpty()) {
             throw new RuntimeException("Cart is empty");
         }
 
         BigDecimal totalAmount = BigDecimal.ZERO;
-        List<OrderItem> orderItems = new ArrayList<>();
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        Map<Long, Book> books = new LinkedHashMap<>();
 
         for (CartItem item : cartItems) {
             Book book = item.getBook();
-            if (book.getStock() < item.getQuantity()) {
-                throw new RuntimeException("Not enough stock for book: " + book.getTitle());
-            }
+            quantities.merge(book.getId(), item.getQuantity(), Integer::sum);
+            books.put(book.getId(), book);
             BigDecimal price = book.getPrice();
             BigDecimal itemTotal = price.multiply(BigDecimal.valueOf(item.getQuantity()));
             totalAmount = totalAmount.add(itemTotal);
         }
 
+        // Stock is checked and taken by the database in one step, for every
+        // line or none
+        StockReservationService.Reservation reservation = stockReservationService.reserve(quantities);
+        if (!reservation.isComplete()) {
+            Book book = books.get(reservation.getShortBookIds().get(0));
+            throw new RuntimeException("Not enough stock for book: " + book.getTitle());
+        }
+        reservation.getRemainingStock().forEach((bookId, remaining) -> {
+            outboxService.publish(new StockChanged(bookId, remaining));
+            catalogCache.evictStock(bookId);
+        });
+
         Order order = new Order();
         order.setUserId(userId);
         order.setOrderDate(LocalDate.now());
         order.setTotalAmount(totalAmount);
         order.setStatus("pending");
 
+        List<OrderItem> orderItems = new ArrayList<>();
         for (CartItem item : cartItems) {
             Book book = item.getBook();
-            book.setStock(book.getStock() - item.getQuantity());
-            bookRepository.save(book);
-
             OrderItem orderItem = new OrderItem();
             orderItem.setBook(book);
             orderItem.setQuantity(item.getQuantity());
@@ -67,15 +212,80 @@ public class OrderService {
         }
 
         order.setItems(orderItems);
-        Order savedOrder = orderRepository.save(order);
+        return order;
+    }
 
-        // BUG FIX: Clear the cart after successful order
-        cartRepository.deleteAll(cartItems);
+    private static OrderPlaced orderPlaced(Order order) {
+        List<OrderPlaced.Line> lines = new ArrayList<>(order.getItems().size());
+        for (OrderItem item : order.getItems()) {
+            lines.add(new OrderPlaced.Line(item.getBook().getId(), item.getBook().getCategory(),
+                    item.getQuantity(), item.getPrice()));
+        }
+        return new OrderPlaced(order.getId(), order.getUserId(), order.getTotalAmount(), order.getCreatedAt(), lines);
+    }
 
-        return savedOrder;
+    private void backOff(int attempt) {
+        long delay = retryBackoffMs * attempt + ThreadLocalRandom.current().nextLong(retryBackoffMs + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while retrying order", e);
+        }
     }
 
-    public List<Order> getOrdersByUser(Long userId) {
-        return orderRepository.findByUserId(userId);
+    /**
+     * Returns one page of a user's orders, newest first, starting after the
+     * cursor. Recent orders come from orders; once those run out the page
+     * continues into the archive, which only holds older ones.
+     */
+    public OrderHistorySlice getOrderHistory(Long userId, String cursorToken, Integer size) {
+        int pageSize = size == null ? defaultHistoryPageSize : Math.max(1, Math.min(size, maxHistoryPageSize));
+        OrderHistoryCursor cursor = cursorToken == null || cursorToken.isBlank()
+                ? null
+                : OrderHistoryCursor.decode(cursorToken);
+        // One extra row tells us whether another page exists
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<OrderSummaryView> rows = cursor == null
+                ? orderRepository.findHistory(userId, limit)
+                : orderRepository.findHistoryBefore(userId, cursor.getCreatedAt(), cursor.getId(), limit);
+        if (!rows.isEmpty()) {
+            Map<Long, OrderSummaryView> byId = new HashMap<>();
+            for (OrderSummaryView order : rows) {
+                byId.put(order.getId(), order);
+            }
+            for (OrderLineView line : orderRepository.findLinesByOrderIds(byId.keySet())) {
+                byId.get(line.getOrderId()).getItems().add(line);
+            }
+        }
+        if (rows.size() <= pageSize) {
+            OrderHistoryCursor archiveFrom = rows.isEmpty()
+                    ? cursor
+                    : OrderHistoryCursor.after(rows.get(rows.size() - 1));
+            rows = new ArrayList<>(rows);
+            rows.addAll(orderArchiveService.findHistory(userId, archiveFrom, pageSize + 1 - rows.size()));
+        }
+
+        boolean hasNext = rows.size() > pageSize;
+        List<OrderSummaryView> items = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext
+                ? OrderHistoryCursor.after(items.get(items.size() - 1)).encode()
+                : null;
+        return new OrderHistorySlice(items, nextCursor, hasNext);
+    }
+
+    /** Outcome of {@link #placeOrders}: the order placed for, or the reason for rejecting, each request. */
+    public static class BatchResult {
+        private final Map<String, Long> orderIds = new HashMap<>();
+        private final Map<String, String> errors = new HashMap<>();
+
+        public Map<String, Long> getOrderIds() {
+            return orderIds;
+        }
+
+        public Map<String, String> getErrors() {
+            return errors;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,127 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import com.example.demo.entity.OutboxEvent;
+import com.example.demo.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Delivers outbox events, oldest first, to the application's
+ * {@code @EventListener}s and deletes them once every listener returned.
+ * Delivery is at least once: an event whose listener failed, or that was
+ * handled just before a crash, is delivered again, so listeners must be
+ * idempotent. A failing event holds back the ones after it until it
+ * succeeds or runs out of attempts.
+ *
+ * The table is only read after a commit wrote events (and once at
+ * startup), not polled while idle.
+ */
+@Service
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${books.events.batch-size:200}")
+    private int batchSize;
+
+    @Value("${books.events.max-attempts:5}")
+    private int maxAttempts;
+
+    // Starts set so events left by the previous run are delivered
+    private final AtomicBoolean pending = new AtomicBoolean(true);
+
+    /** Called after a commit that wrote events. */
+    public void wakeUp() {
+        pending.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${books.events.relay-interval-ms:100}")
+    public void relay() {
+        while (pending.getAndSet(false)) {
+            List<OutboxEvent> batch = outboxEventRepository.findDeliverable(maxAttempts, Limit.of(batchSize));
+            List<Long> delivered = new ArrayList<>(batch.size());
+            boolean failed = false;
+            for (OutboxEvent event : batch) {
+                try {
+                    eventPublisher.publishEvent(decode(event));
+                    delivered.add(event.getId());
+                } catch (Exception e) {
+                    failed = true;
+                    if (event.getAttempts() + 1 >= maxAttempts) {
+                        log.error("Giving up on outbox event {} ({}) after {} attempts",
+                                event.getId(), event.getType(), maxAttempts, e);
+                    } else {
+                        log.warn("Delivering outbox event {} ({}) failed: {}",
+                                event.getId(), event.getType(), e.getMessage());
+                    }
+                    outboxEventRepository.incrementAttempts(event.getId());
+                    break;
+                }
+            }
+            if (!batch.isEmpty()) {
+                eventPublisher.publishEvent(new BatchDelivered(delivered.size(), failed || batch.size() < batchSize));
+            }
+            if (!delivered.isEmpty()) {
+                outboxEventRepository.deleteAllByIdInBatch(delivered);
+            }
+            if (failed) {
+                // Retried on the next run
+                pending.set(true);
+                return;
+            }
+            if (batch.size() == batchSize) {
+                pending.set(true);
+            }
+        }
+    }
+
+    /**
+     * Published after each batch, so listeners can apply expensive updates
+     * (index refreshes, rebuilds) once per batch rather than per event.
+     */
+    public static class BatchDelivered {
+        private final int count;
+        private final boolean caughtUp;
+
+        public BatchDelivered(int count, boolean caughtUp) {
+            this.count = count;
+            this.caughtUp = caughtUp;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        /** False while more events are waiting, e.g. during a bulk import. */
+        public boolean isCaughtUp() {
+            return caughtUp;
+        }
+    }
+
+    private Object decode(OutboxEvent event) throws Exception {
+        Class<?> type = OutboxService.EVENT_TYPES.get(event.getType());
+        if (type == null) {
+            throw new IllegalStateException("Unknown event type: " + event.getType());
+        }
+        return objectMapper.readValue(event.getPayload(), type);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.demo.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.example.demo.entity.OutboxEvent;
+import com.example.demo.event.BookAdded;
+import com.example.demo.event.BookDeleted;
+import com.example.demo.event.OrderPlaced;
+import com.example.demo.event.StockChanged;
+import com.example.demo.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Records domain events in the outbox table as part of the caller's
+ * transaction, so an event is stored exactly when the change it describes
+ * commits. {@link OutboxRelay} delivers them to {@code @EventListener}s.
+ */
+@Service
+public class OutboxService {
+
+    static final Map<String, Class<?>> EVENT_TYPES = List.of(
+            BookAdded.class, BookDeleted.class, StockChanged.class, OrderPlaced.class)
+            .stream().collect(Collectors.toUnmodifiableMap(Class::getSimpleName, Function.identity()));
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public void publish(Object event) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Events must be published inside the transaction making the change");
+        }
+        String type = event.getClass().getSimpleName();
+        if (!EVENT_TYPES.containsKey(type)) {
+            throw new IllegalArgumentException("Unknown event type: " + type);
+        }
+        try {
+            outboxEventRepository.save(new OutboxEvent(type, objectMapper.writeValueAsString(event)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Could not serialize " + type, e);
+        }
+        AfterCommit.run(outboxRelay::wakeUp);
+    }
+}
@@ -0,0 +1,338 @@
+package com.example.demo.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import com.example.demo.dto.BookSales;
+import com.example.demo.dto.CategorySales;
+import com.example.demo.dto.RevenueReport;
+import com.example.demo.event.OrderPlaced;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Sales analytics kept in memory: units and revenue per book and per
+ * category in {@link SalesCounters}, fed by {@link OrderPlaced} events.
+ * Windows are {@code 1h}-{@code 48h} or {@code 1d}-{@code 90d}; bestseller
+ * lists are ranked at most once per {@code books.analytics.ranking-ttl-ms}
+ * for each window and served from that ranking.
+ *
+ * <p>Counters are snapshotted to disk periodically. On startup the snapshot
+ * is loaded and orders placed since shortly before it was taken are read
+ * back from the orders table; without a snapshot the whole daily window
+ * is. Orders already counted are remembered by id, so neither that
+ * overlap nor a redelivered event counts twice.
+ */
+@Service
+public class SalesAnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesAnalyticsService.class);
+
+    private static final String SNAPSHOT = "sales.snapshot";
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final long HOUR_MS = 3_600_000L;
+    // Orders created before a snapshot but committed after it
+    private static final long CATCH_UP_OVERLAP_MS = 5 * 60_000L;
+    private static final int RECENT_ORDERS = 50_000;
+    private static final Pattern WINDOW = Pattern.compile("(\\d{1,3})([hd])");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${books.analytics.snapshot-dir:data/analytics}")
+    private String snapshotDir;
+
+    @Value("${books.analytics.ranking-ttl-ms:10000}")
+    private long rankingTtlMs;
+
+    @Value("${books.analytics.max-limit:100}")
+    private int maxLimit;
+
+    private final SalesCounters<Long> books = new SalesCounters<>();
+    private final SalesCounters<String> categories = new SalesCounters<>();
+    // Ids of the latest orders counted, oldest first
+    private final Map<Long, Boolean> recentOrders = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+            return size() > RECENT_ORDERS;
+        }
+    };
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Ranking> rankings = new ConcurrentHashMap<>();
+    private volatile boolean changed;
+
+    @PostConstruct
+    public void load() {
+        long now = System.currentTimeMillis();
+        long since = now - SalesCounters.DAYS * 24 * HOUR_MS;
+        Path file = Paths.get(snapshotDir).resolve(SNAPSHOT);
+        if (Files.exists(file)) {
+            try {
+                since = readSnapshot(file) - CATCH_UP_OVERLAP_MS;
+            } catch (IOException | RuntimeException e) {
+                log.warn("Ignoring unreadable sales snapshot {}: {}", file, e.getMessage());
+            }
+        }
+        int orders = catchUp(new Timestamp(since));
+        log.info("Sales analytics loaded: {} books, {} categories, {} orders read back",
+                books.size(), categories.size(), orders);
+    }
+
+    @EventListener
+    public void onOrderPlaced(OrderPlaced event) {
+        LocalDateTime placedAt = event.getPlacedAt() == null ? LocalDateTime.now() : event.getPlacedAt();
+        lock.writeLock().lock();
+        try {
+            if (recentOrders.put(event.getOrderId(), Boolean.TRUE) != null) {
+                return;
+            }
+            for (OrderPlaced.Line line : event.getLines()) {
+                record(placedAt, line.getBookId(), line.getCategory(), line.getQuantity(), line.getPrice());
+            }
+            changed = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** The best selling books of a window, by units or by revenue. */
+    public List<BookSales> bestsellers(String window, int limit, boolean byRevenue) {
+        Window w = Window.parse(window);
+        String key = window + (byRevenue ? ":revenue" : ":units");
+        Ranking ranking = rankings.get(key);
+        long now = System.currentTimeMillis();
+        if (ranking == null || now - ranking.builtAt > rankingTtlMs) {
+            lock.readLock().lock();
+            try {
+                ranking = new Ranking(now, books.top(w.daily, w.length, w.now(), maxLimit, byRevenue));
+            } finally {
+                lock.readLock().unlock();
+            }
+            rankings.put(key, ranking);
+        }
+        int count = Math.min(Math.max(limit, 0), ranking.totals.size());
+        List<BookSales> result = new ArrayList<>(count);
+        for (SalesCounters.Total<Long> total : ranking.totals.subList(0, count)) {
+            result.add(new BookSales(total.getKey(), total.getUnits(), money(total.getCents())));
+        }
+        return result;
+    }
+
+    /** Store revenue of a window, broken down by category, highest first. */
+    public RevenueReport revenue(String window) {
+        Window w = Window.parse(window);
+        List<SalesCounters.Total<String>> totals;
+        lock.readLock().lock();
+        try {
+            totals = categories.top(w.daily, w.length, w.now(), categories.size(), true);
+        } finally {
+            lock.readLock().unlock();
+        }
+        long units = 0;
+        long cents = 0;
+        List<CategorySales> byCategory = new ArrayList<>(totals.size());
+        for (SalesCounters.Total<String> total : totals) {
+            units += total.getUnits();
+            cents += total.getCents();
+            byCategory.add(new CategorySales(total.getKey(), total.getUnits(), money(total.getCents())));
+        }
+        return new RevenueReport(window, units, money(cents), byCategory);
+    }
+
+    public BookSales bookSales(Long bookId, String window) {
+        Window w = Window.parse(window);
+        SalesCounters.Total<Long> total;
+        lock.readLock().lock();
+        try {
+            total = books.total(bookId, w.daily, w.length, w.now());
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new BookSales(bookId, total.getUnits(), money(total.getCents()));
+    }
+
+    @Scheduled(fixedDelayString = "${books.analytics.snapshot-interval-ms:60000}",
+            initialDelayString = "${books.analytics.snapshot-interval-ms:60000}")
+    public void snapshot() {
+        if (!changed) {
+            return;
+        }
+        changed = false;
+        try {
+            writeSnapshot(Paths.get(snapshotDir));
+        } catch (IOException e) {
+            changed = true;
+            log.warn("Writing the sales snapshot failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        snapshot();
+    }
+
+    // Caller holds the write lock
+    private void record(LocalDateTime placedAt, Long bookId, String category, int quantity, BigDecimal price) {
+        long hour = Math.floorDiv(placedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), HOUR_MS);
+        long day = placedAt.toLocalDate().toEpochDay();
+        long cents = price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue() * quantity;
+        books.add(bookId, hour, day, quantity, cents);
+        categories.add(category == null ? "" : category, hour, day, quantity, cents);
+    }
+
+    // Orders are read in id order, so the lines of an order arrive together
+    private int catchUp(Timestamp since) {
+        int[] orders = { 0 };
+        lock.writeLock().lock();
+        try {
+            jdbcTemplate.query("SELECT o.id, o.created_at, i.book_id, b.category, i.quantity, i.price "
+                    + "FROM orders o JOIN order_items i ON i.order_id = o.id "
+                    + "LEFT JOIN books b ON b.id = i.book_id "
+                    + "WHERE o.created_at >= ? ORDER BY o.id", new RowCallbackHandler() {
+                        private long current = -1;
+                        private boolean skip;
+
+                        @Override
+                        public void processRow(ResultSet rs) throws SQLException {
+                            long orderId = rs.getLong(1);
+                            if (orderId != current) {
+                                current = orderId;
+                                skip = recentOrders.put(orderId, Boolean.TRUE) != null;
+                                if (!skip) {
+                                    orders[0]++;
+                                }
+                            }
+                            if (!skip) {
+                                record(rs.getTimestamp(2).toLocalDateTime(), rs.getLong(3), rs.getString(4),
+                                        rs.getInt(5), rs.getBigDecimal(6));
+                            }
+                        }
+                    }, since);
+            changed |= orders[0] > 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return orders[0];
+    }
+
+    /** Returns when the snapshot was taken, in epoch millis. */
+    private long readSnapshot(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != SNAPSHOT_VERSION
+                    || in.readInt() != SalesCounters.HOURS || in.readInt() != SalesCounters.DAYS) {
+                throw new IOException("written by another version");
+            }
+            long takenAt = in.readLong();
+            lock.writeLock().lock();
+            try {
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    recentOrders.put(in.readLong(), Boolean.TRUE);
+                }
+                books.read(in, SalesCounters.KeyCodec.LONG);
+                categories.read(in, SalesCounters.KeyCodec.STRING);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return takenAt;
+        }
+    }
+
+    // Written to a temporary file and moved into place, so a crash leaves the previous snapshot
+    private void writeSnapshot(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        Path temp = dir.resolve(SNAPSHOT + ".tmp");
+        lock.readLock().lock();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(SalesCounters.HOURS);
+            out.writeInt(SalesCounters.DAYS);
+            out.writeLong(System.currentTimeMillis());
+            out.writeInt(recentOrders.size());
+            for (Long orderId : recentOrders.keySet()) {
+                out.writeLong(orderId);
+            }
+            books.write(out, SalesCounters.KeyCodec.LONG);
+            categories.write(out, SalesCounters.KeyCodec.STRING);
+        } finally {
+            lock.readLock().unlock();
+        }
+        Files.move(temp, dir.resolve(SNAPSHOT), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static BigDecimal money(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static final class Ranking {
+        final long builtAt;
+        final List<SalesCounters.Total<Long>> totals;
+
+        Ranking(long builtAt, List<SalesCounters.Total<Long>> totals) {
+            this.builtAt = builtAt;
+            this.totals = totals;
+        }
+    }
+
+    private static final class Window {
+        final boolean daily;
+        final int length;
+
+        Window(boolean daily, int length) {
+            this.daily = daily;
+            this.length = length;
+        }
+
+        static Window parse(String window) {
+            Matcher m = WINDOW.matcher(window == null ? "" : window);
+            if (m.matches()) {
+                boolean daily = m.group(2).equals("d");
+                int length = Integer.parseInt(m.group(1));
+                if (length >= 1 && length <= (daily ? SalesCounters.DAYS : SalesCounters.HOURS)) {
+                    return new Window(daily, length);
+                }
+            }
+            throw new RuntimeException("Window must be 1h to " + SalesCounters.HOURS + "h or 1d to "
+                    + SalesCounters.DAYS + "d");
+        }
+
+        // The current hour or day, as counted by record()
+        long now() {
+            return daily
+                    ? LocalDate.now().toEpochDay()
+                    : Math.floorDiv(System.currentTimeMillis(), HOUR_MS);
+        }
+    }
+}
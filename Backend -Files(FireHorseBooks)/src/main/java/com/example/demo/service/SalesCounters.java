@@ -0,0 +1,254 @@
+package com.example.demo.service;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Rolling sales totals per key (a book, a category) in ring buffers of
+ * hourly and daily buckets. All keys share flat primitive arrays: the key
+ * in slot {@code s} owns positions {@code [s * HOURS, (s + 1) * HOURS)} of
+ * the hourly arrays, and likewise for days, so a sale is two array adds.
+ *
+ * <p>Each key remembers the newest hour and day it has sold in. Buckets
+ * that fell out of the ring behind that are treated as empty and only
+ * cleared when reused, so nothing has to sweep the arrays as time passes.
+ *
+ * <p>Not thread-safe; {@link SalesAnalyticsService} guards it.
+ */
+public class SalesCounters<K> {
+
+    public static final int HOURS = 48;
+    public static final int DAYS = 90;
+
+    private static final long NEVER = Long.MIN_VALUE / 2;
+
+    private final Map<K, Integer> slots = new HashMap<>();
+    private final List<K> keys = new ArrayList<>();
+    private int[] hourUnits = new int[0];
+    private long[] hourCents = new long[0];
+    private int[] dayUnits = new int[0];
+    private long[] dayCents = new long[0];
+    private long[] lastHour = new long[0];
+    private long[] lastDay = new long[0];
+
+    /**
+     * Adds a sale in the given hour and day (hours and days since the
+     * epoch). A sale older than a ring only counts in the rings it still
+     * fits in.
+     */
+    public void add(K key, long hour, long day, int units, long cents) {
+        int slot = slot(key);
+        if (advance(lastHour, slot, hour, HOURS, hourUnits, hourCents)) {
+            int i = slot * HOURS + (int) Math.floorMod(hour, HOURS);
+            hourUnits[i] += units;
+            hourCents[i] += cents;
+        }
+        if (advance(lastDay, slot, day, DAYS, dayUnits, dayCents)) {
+            int i = slot * DAYS + (int) Math.floorMod(day, DAYS);
+            dayUnits[i] += units;
+            dayCents[i] += cents;
+        }
+    }
+
+    /** Totals of one key over the last {@code length} hours or days up to {@code now}. */
+    public Total<K> total(K key, boolean daily, int length, long now) {
+        Integer slot = slots.get(key);
+        if (slot == null) {
+            return new Total<>(key, 0, 0);
+        }
+        return total(slot, daily, length, now);
+    }
+
+    /** Every key that sold in the window, most sold (by units or revenue) first. */
+    public List<Total<K>> top(boolean daily, int length, long now, int limit, boolean byRevenue) {
+        Comparator<Total<K>> order = byRevenue
+                ? Comparator.<Total<K>>comparingLong(Total::getCents).thenComparingLong(Total::getUnits)
+                : Comparator.<Total<K>>comparingLong(Total::getUnits).thenComparingLong(Total::getCents);
+        // Min-heap of the best seen so far
+        PriorityQueue<Total<K>> best = new PriorityQueue<>(order);
+        for (int slot = 0; slot < keys.size() && limit > 0; slot++) {
+            Total<K> total = total(slot, daily, length, now);
+            if (total.units == 0 && total.cents == 0) {
+                continue;
+            }
+            if (best.size() < limit) {
+                best.add(total);
+            } else if (order.compare(total, best.peek()) > 0) {
+                best.poll();
+                best.add(total);
+            }
+        }
+        List<Total<K>> result = new ArrayList<>(best);
+        result.sort(order.reversed());
+        return result;
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    public void write(DataOutput out, KeyCodec<K> codec) throws IOException {
+        out.writeInt(keys.size());
+        for (int slot = 0; slot < keys.size(); slot++) {
+            codec.write(out, keys.get(slot));
+            out.writeLong(lastHour[slot]);
+            out.writeLong(lastDay[slot]);
+            for (int i = slot * HOURS; i < (slot + 1) * HOURS; i++) {
+                out.writeInt(hourUnits[i]);
+                out.writeLong(hourCents[i]);
+            }
+            for (int i = slot * DAYS; i < (slot + 1) * DAYS; i++) {
+                out.writeInt(dayUnits[i]);
+                out.writeLong(dayCents[i]);
+            }
+        }
+    }
+
+    /** Replaces the contents with what {@link #write} wrote. */
+    public void read(DataInput in, KeyCodec<K> codec) throws IOException {
+        slots.clear();
+        keys.clear();
+        int count = in.readInt();
+        grow(count);
+        for (int slot = 0; slot < count; slot++) {
+            K key = codec.read(in);
+            slots.put(key, slot);
+            keys.add(key);
+            lastHour[slot] = in.readLong();
+            lastDay[slot] = in.readLong();
+            for (int i = slot * HOURS; i < (slot + 1) * HOURS; i++) {
+                hourUnits[i] = in.readInt();
+                hourCents[i] = in.readLong();
+            }
+            for (int i = slot * DAYS; i < (slot + 1) * DAYS; i++) {
+                dayUnits[i] = in.readInt();
+                dayCents[i] = in.readLong();
+            }
+        }
+    }
+
+    private Total<K> total(int slot, boolean daily, int length, long now) {
+        int size = daily ? DAYS : HOURS;
+        long newest = daily ? lastDay[slot] : lastHour[slot];
+        int[] units = daily ? dayUnits : hourUnits;
+        long[] cents = daily ? dayCents : hourCents;
+        long from = Math.max(now - Math.min(length, size) + 1, newest - size + 1);
+        long to = Math.min(now, newest);
+        long unitSum = 0;
+        long centSum = 0;
+        for (long t = from; t <= to; t++) {
+            int i = slot * size + (int) Math.floorMod(t, size);
+            unitSum += units[i];
+            centSum += cents[i];
+        }
+        return new Total<>(keys.get(slot), unitSum, centSum);
+    }
+
+    // Moves a key's ring forward to t, clearing the buckets it reuses;
+    // false if t is too old for the ring
+    private static boolean advance(long[] last, int slot, long t, int size, int[] units, long[] cents) {
+        long newest = last[slot];
+        if (t <= newest) {
+            return t > newest - size;
+        }
+        for (long x = Math.max(newest + 1, t - size + 1); x <= t; x++) {
+            int i = slot * size + (int) Math.floorMod(x, size);
+            units[i] = 0;
+            cents[i] = 0;
+        }
+        last[slot] = t;
+        return true;
+    }
+
+    private int slot(K key) {
+        Integer slot = slots.get(key);
+        if (slot == null) {
+            slot = keys.size();
+            grow(slot + 1);
+            slots.put(key, slot);
+            keys.add(key);
+        }
+        return slot;
+    }
+
+    private void grow(int count) {
+        if (count <= lastHour.length) {
+            return;
+        }
+        int capacity = Math.max(count, Math.max(16, lastHour.length * 2));
+        hourUnits = Arrays.copyOf(hourUnits, capacity * HOURS);
+        hourCents = Arrays.copyOf(hourCents, capacity * HOURS);
+        dayUnits = Arrays.copyOf(dayUnits, capacity * DAYS);
+        dayCents = Arrays.copyOf(dayCents, capacity * DAYS);
+        int from = lastHour.length;
+        lastHour = Arrays.copyOf(lastHour, capacity);
+        lastDay = Arrays.copyOf(lastDay, capacity);
+        Arrays.fill(lastHour, from, capacity, NEVER);
+        Arrays.fill(lastDay, from, capacity, NEVER);
+    }
+
+    /** Units and revenue (in cents) of one key over a window. */
+    public static final class Total<K> {
+        private final K key;
+        private final long units;
+        private final long cents;
+
+        public Total(K key, long units, long cents) {
+            this.key = key;
+            this.units = units;
+            this.cents = cents;
+        }
+
+        public K getKey() {
+            return key;
+        }
+
+        public long getUnits() {
+            return units;
+        }
+
+        public long getCents() {
+            return cents;
+        }
+    }
+
+    /** How keys are written to and read from a snapshot. */
+    public interface KeyCodec<K> {
+
+        KeyCodec<Long> LONG = new KeyCodec<>() {
+            @Override
+            public void write(DataOutput out, Long key) throws IOException {
+                out.writeLong(key);
+            }
+
+            @Override
+            public Long read(DataInput in) throws IOException {
+                return in.readLong();
+            }
+        };
+
+        KeyCodec<String> STRING = new KeyCodec<>() {
+            @Override
+            public void write(DataOutput out, String key) throws IOException {
+                out.writeUTF(key);
+            }
+
+            @Override
+            public String read(DataInput in) throws IOException {
+                return in.readUTF();
+            }
+        };
+
+        void write(DataOutput out, K key) throws IOException;
+
+        K read(DataInput in) throws IOException;
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import com.example.demo.dto.BookSummary;
+import com.example.demo.entity.Book;
+import com.example.demo.repository.BookRepository;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-memory Lucene index over book title, author and category. Rebuilt from
+ * the database on startup and kept current by {@link CatalogIndexListener}.
+ * Every query term must match some field; exact terms outrank prefixes and
+ * title matches outrank author and category matches.
+ */
+@Service
+public class SearchIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexService.class);
+
+    private static final String ID = "id";
+    private static final String[] FIELDS = { "title", "author", "category" };
+    private static final float[] BOOSTS = { 3f, 2f, 1f };
+    private static final int REBUILD_BATCH = 1000;
+    // Deepest hit a page may reach; collecting more costs memory for every request
+    public static final int MAX_RESULT_WINDOW = 10_000;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    public SearchIndexService() throws IOException {
+        writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analyzer));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long count = 0;
+        Long lastId = 0L;
+        try {
+            writer.deleteAll();
+            List<BookSummary> batch;
+            do {
+                batch = bookRepository.findPageAfterId(lastId, Limit.of(REBUILD_BATCH));
+                for (BookSummary book : batch) {
+                    writer.addDocument(toDocument(book.getId(), book.getTitle(), book.getAuthor(), book.getCategory()));
+                    lastId = book.getId();
+                }
+                count += batch.size();
+            } while (batch.size() == REBUILD_BATCH);
+            writer.commit();
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("Search index built with {} books", count);
+    }
+
+    public void index(Long id, String title, String author, String category) {
+        try {
+            writer.updateDocument(new Term(ID, id.toString()), toDocument(id, title, author, category));
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Indexes many books and makes them searchable with a single refresh. */
+    public void indexAll(List<Book> books) {
+        try {
+            for (Book book : books) {
+                writer.updateDocument(new Term(ID, book.getId().toString()),
+                        toDocument(book.getId(), book.getTitle(), book.getAuthor(), book.getCategory()));
+            }
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void remove(Long id) {
+        try {
+            writer.deleteDocuments(new Term(ID, id.toString()));
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the ids of one page of matches in relevance order, and the
+     * total number of matches.
+     *
+     * @throws IllegalArgumentException when the page reaches past
+     *         {@link #MAX_RESULT_WINDOW} matches
+     */
+    public SearchHits search(String text, int page, int size) {
+        long end = ((long) page + 1) * size;
+        if (page < 0 || size < 1 || end > MAX_RESULT_WINDOW) {
+            throw new IllegalArgumentException("Only the first " + MAX_RESULT_WINDOW
+                    + " matches can be paged through; refine the search");
+        }
+        Query query = buildQuery(text);
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs top = searcher.search(query, (int) end);
+                List<Long> ids = new ArrayList<>();
+                ScoreDoc[] docs = top.scoreDocs;
+                for (int i = page * size; i < docs.length; i++) {
+                    ids.add(Long.valueOf(searcher.storedFields().document(docs[i].doc).get(ID)));
+                }
+                return new SearchHits(ids, searcher.count(query));
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    Query buildQuery(String text) {
+        List<String> tokens = analyze(text);
+        if (tokens.isEmpty()) {
+            return new MatchAllDocsQuery();
+        }
+        BooleanQuery.Builder all = new BooleanQuery.Builder();
+        for (String token : tokens) {
+            BooleanQuery.Builder any = new BooleanQuery.Builder();
+            for (int i = 0; i < FIELDS.length; i++) {
+                Term term = new Term(FIELDS[i], token);
+                any.add(new BoostQuery(new TermQuery(term), BOOSTS[i] * 2), BooleanClause.Occur.SHOULD);
+                any.add(new BoostQuery(new PrefixQuery(term), BOOSTS[i]), BooleanClause.Occur.SHOULD);
+            }
+            all.add(any.build(), BooleanClause.Occur.MUST);
+        }
+        return all.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        try (TokenStream stream = analyzer.tokenStream(FIELDS[0], text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                tokens.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return tokens;
+    }
+
+    private static Document toDocument(Long id, String title, String author, String category) {
+        Document doc = new Document();
+        doc.add(new StringField(ID, id.toString(), Field.Store.YES));
+        doc.add(new TextField("title", nullToEmpty(title), Field.Store.NO));
+        doc.add(new TextField("author", nullToEmpty(author), Field.Store.NO));
+        doc.add(new TextField("category", nullToEmpty(category), Field.Store.NO));
+        return doc;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+    }
+
+    /** Ids of one page of matches plus the total match count. */
+    public static class SearchHits {
+        private final List<Long> ids;
+        private final long total;
+
+        public SearchHits(List<Long> ids, long total) {
+            this.ids = ids;
+            this.total = total;
+        }
+
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+    }
+}
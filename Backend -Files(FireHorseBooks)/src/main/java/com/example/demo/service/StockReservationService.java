@@ -0,0 +1,117 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import com.example.demo.entity.Book;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Takes ordered quantities out of stock with conditional updates instead of
+ * read-check-write in Java. Each line only succeeds while enough stock is
+ * left, so concurrent checkouts on the same title cannot oversell and never
+ * wait on a lock longer than one UPDATE.
+ */
+@Service
+public class StockReservationService {
+
+    private static final String RESERVE_SQL =
+            "UPDATE books SET stock = stock - ?, version = version + 1 WHERE id = ? AND stock >= ?";
+    private static final String RETURN_SQL =
+            "UPDATE books SET stock = stock + ?, version = version + 1 WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    /**
+     * Reserves all lines in one JDBC batch, or none: when any book is short
+     * the lines that did succeed are put back before returning, so a caller
+     * placing several orders in one transaction can carry on with the next.
+     * Must run inside the caller's transaction. Rows are updated in id order
+     * so two multi-book orders cannot deadlock on each other.
+     *
+     * With {@code books.inventory.mode=ledger} the in-memory
+     * {@link InventoryLedger} decides instead and the rows are written later.
+     */
+    public Reservation reserve(Map<Long, Integer> quantities) {
+        if (inventoryLedger.isEnabled()) {
+            return inventoryLedger.reserve(quantities);
+        }
+        TreeMap<Long, Integer> ordered = new TreeMap<>(quantities);
+        List<Object[]> args = new ArrayList<>(ordered.size());
+        for (Map.Entry<Long, Integer> line : ordered.entrySet()) {
+            args.add(new Object[] { line.getValue(), line.getKey(), line.getValue() });
+        }
+        int[] counts = jdbcTemplate.batchUpdate(RESERVE_SQL, args);
+
+        List<Long> shortBookIds = new ArrayList<>();
+        List<Object[]> taken = new ArrayList<>();
+        int i = 0;
+        for (Map.Entry<Long, Integer> line : ordered.entrySet()) {
+            if (counts[i++] == 0) {
+                shortBookIds.add(line.getKey());
+            } else {
+                taken.add(new Object[] { line.getValue(), line.getKey() });
+            }
+        }
+        if (!shortBookIds.isEmpty()) {
+            if (!taken.isEmpty()) {
+                jdbcTemplate.batchUpdate(RETURN_SQL, taken);
+            }
+            return new Reservation(shortBookIds, Collections.emptyMap());
+        }
+
+        // The rows are already locked by our updates, so this sees the final values
+        Map<Long, Integer> remaining = new HashMap<>();
+        String placeholders = String.join(",", Collections.nCopies(ordered.size(), "?"));
+        jdbcTemplate.query("SELECT id, stock FROM books WHERE id IN (" + placeholders + ") FOR UPDATE",
+                rs -> {
+                    remaining.put(rs.getLong(1), rs.getInt(2));
+                },
+                ordered.keySet().toArray());
+
+        // Plain JDBC bypasses Hibernate, so drop what its caches hold for these rows
+        AfterCommit.run(() -> {
+            jakarta.persistence.Cache cache = entityManagerFactory.getCache();
+            for (Long bookId : ordered.keySet()) {
+                cache.evict(Book.class, bookId);
+            }
+            cache.unwrap(org.hibernate.Cache.class).evictQueryRegion("catalog-queries");
+        });
+        return new Reservation(Collections.emptyList(), remaining);
+    }
+
+    public static class Reservation {
+        private final List<Long> shortBookIds;
+        private final Map<Long, Integer> remainingStock;
+
+        public Reservation(List<Long> shortBookIds, Map<Long, Integer> remainingStock) {
+            this.shortBookIds = shortBookIds;
+            this.remainingStock = remainingStock;
+        }
+
+        public boolean isComplete() {
+            return shortBookIds.isEmpty();
+        }
+
+        public List<Long> getShortBookIds() {
+            return shortBookIds;
+        }
+
+        public Map<Long, Integer> getRemainingStock() {
+            return remainingStock;
+        }
+    }
+}
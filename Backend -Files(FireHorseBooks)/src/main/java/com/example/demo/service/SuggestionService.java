@@ -0,0 +1,121 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import com.example.demo.dto.BookSummary;
+import com.example.demo.dto.Suggestion;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.repository.OrderRepository;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Serves typeahead suggestions from an in-memory {@link SuggestionTrie}.
+ * Catalog changes schedule a rebuild on a background thread; the new trie
+ * replaces the old one with a single reference swap, so readers never wait
+ * and never see a half-built trie. Bursts of changes coalesce into one rebuild.
+ */
+@Service
+public class SuggestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(SuggestionService.class);
+    private static final int REBUILD_BATCH = 1000;
+
+    @Value("${books.suggest.top-n:10}")
+    private int topN;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private volatile SuggestionTrie trie = SuggestionTrie.empty();
+
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "suggest-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public List<Suggestion> suggest(String prefix, int limit) {
+        return trie.lookup(prefix, Math.max(1, Math.min(limit, topN)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildNow() {
+        long started = System.nanoTime();
+        Map<Long, Long> sales = new HashMap<>();
+        for (Object[] row : orderRepository.sumQuantityByBook()) {
+            sales.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+
+        List<Suggestion> suggestions = new ArrayList<>();
+        Map<String, long[]> authors = new HashMap<>();
+        Map<String, long[]> categories = new HashMap<>();
+        Long lastId = 0L;
+        List<BookSummary> batch;
+        do {
+            batch = bookRepository.findPageAfterId(lastId, Limit.of(REBUILD_BATCH));
+            for (BookSummary book : batch) {
+                long sold = sales.getOrDefault(book.getId(), 0L);
+                suggestions.add(new Suggestion(book.getTitle(), "title", book.getId(), sold));
+                addScore(authors, book.getAuthor(), sold);
+                addScore(categories, book.getCategory(), sold);
+                lastId = book.getId();
+            }
+        } while (batch.size() == REBUILD_BATCH);
+        authors.forEach((name, score) -> suggestions.add(new Suggestion(name, "author", null, score[0])));
+        categories.forEach((name, score) -> suggestions.add(new Suggestion(name, "category", null, score[0])));
+
+        trie = SuggestionTrie.build(suggestions, topN);
+        log.debug("Suggestion trie rebuilt with {} entries in {} ms",
+                suggestions.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /** Schedules a rebuild unless one is already waiting to run. */
+    public void requestRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                rebuildPending.set(false);
+                try {
+                    rebuildNow();
+                } catch (RuntimeException e) {
+                    log.warn("Suggestion rebuild failed: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    // Sales change with every order; refresh rankings periodically rather than per order
+    @Scheduled(fixedDelayString = "${books.suggest.refresh-interval-ms:300000}",
+            initialDelayString = "${books.suggest.refresh-interval-ms:300000}")
+    public void refreshRankings() {
+        requestRebuild();
+    }
+
+    private static void addScore(Map<String, long[]> scores, String name, long sold) {
+        if (name != null && !name.isBlank()) {
+            scores.computeIfAbsent(name.trim(), k -> new long[1])[0] += sold;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+}
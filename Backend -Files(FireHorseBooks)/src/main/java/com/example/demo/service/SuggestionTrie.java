@@ -0,0 +1,120 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+import com.example.demo.dto.Suggestion;
+
+/**
+ * Immutable prefix trie. Every node stores the best {@code topN} suggestions
+ * below it, so a lookup is a walk down the prefix with no ranking work.
+ * Each suggestion is reachable from the start of every word in its text, so
+ * "hob" finds "The Hobbit". Safe to read from any number of threads.
+ */
+public final class SuggestionTrie {
+
+    static final Comparator<Suggestion> RANKING = Comparator
+            .comparingLong(Suggestion::getScore).reversed()
+            .thenComparing(Suggestion::getText, String.CASE_INSENSITIVE_ORDER);
+
+    private static final Suggestion[] NONE = new Suggestion[0];
+
+    private final Node root;
+
+    private SuggestionTrie(Node root) {
+        this.root = root;
+    }
+
+    public static SuggestionTrie empty() {
+        return new SuggestionTrie(new Node(new char[0], new Node[0], NONE));
+    }
+
+    public static SuggestionTrie build(List<Suggestion> suggestions, int topN) {
+        Builder root = new Builder();
+        for (Suggestion suggestion : suggestions) {
+            String key = normalize(suggestion.getText());
+            for (int start = 0; start < key.length(); start++) {
+                if (start == 0 || key.charAt(start - 1) == ' ') {
+                    root.insert(key, start, suggestion);
+                }
+            }
+        }
+        return new SuggestionTrie(root.freeze(topN));
+    }
+
+    public List<Suggestion> lookup(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        return Arrays.asList(node.top).subList(0, Math.min(limit, node.top.length));
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.toLowerCase(Locale.ROOT).trim().replaceAll("\\s+", " ");
+    }
+
+    private static final class Node {
+        private final char[] keys;
+        private final Node[] children;
+        private final Suggestion[] top;
+
+        Node(char[] keys, Node[] children, Suggestion[] top) {
+            this.keys = keys;
+            this.children = children;
+            this.top = top;
+        }
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+    }
+
+    /** Mutable node used only while building. */
+    private static final class Builder {
+        private final TreeMap<Character, Builder> children = new TreeMap<>();
+        private final List<Suggestion> terminals = new ArrayList<>(1);
+
+        void insert(String key, int from, Suggestion suggestion) {
+            Builder node = this;
+            for (int i = from; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new Builder());
+            }
+            node.terminals.add(suggestion);
+        }
+
+        Node freeze(int topN) {
+            char[] keys = new char[children.size()];
+            Node[] frozen = new Node[children.size()];
+            List<Suggestion> candidates = new ArrayList<>(terminals);
+            int i = 0;
+            for (var entry : children.entrySet()) {
+                keys[i] = entry.getKey();
+                frozen[i] = entry.getValue().freeze(topN);
+                candidates.addAll(Arrays.asList(frozen[i].top));
+                i++;
+            }
+            // The same suggestion can arrive from several word starts
+            Suggestion[] top = candidates.stream()
+                    .distinct()
+                    .sorted(RANKING)
+                    .limit(topN)
+                    .toArray(Suggestion[]::new);
+            return new Node(keys, frozen, top);
+        }
+    }
+}
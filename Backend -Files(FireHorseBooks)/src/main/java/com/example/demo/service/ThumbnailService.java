@@ -0,0 +1,128 @@
+package com.example.demo.service;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import com.example.demo.repository.BookRepository;
+
+/**
+ * Renders fixed-size JPEG card thumbnails from stored covers and points
+ * {@code Book.imageUrl} at them. Runs off the request thread.
+ */
+@Service
+public class ThumbnailService {
+
+    public static final String URL_PREFIX = "/api/images/";
+    private static final String URL_SUFFIX = ".jpg";
+    private static final Pattern URL_PATTERN = Pattern.compile(Pattern.quote(URL_PREFIX)
+            + "([0-9a-f]{64})" + Pattern.quote(URL_SUFFIX));
+
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailService.class);
+
+    @Value("${books.images.thumbnail.width:300}")
+    private int width;
+
+    @Value("${books.images.thumbnail.height:400}")
+    private int height;
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Async("thumbnailExecutor")
+    public void generateThumbnail(Long bookId, String imageKey) {
+        try {
+            String thumbnailKey = createThumbnail(imageKey);
+            if (thumbnailKey != null) {
+                bookRepository.updateImageUrl(bookId, urlOf(thumbnailKey));
+                catalogCache.evictBook(bookId);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not create thumbnail for book {}: {}", bookId, e.getMessage());
+        }
+    }
+
+    public static String urlOf(String thumbnailKey) {
+        return URL_PREFIX + thumbnailKey + URL_SUFFIX;
+    }
+
+    /** The store key behind a thumbnail URL, or null for any other URL. */
+    public static String keyOf(String imageUrl) {
+        if (imageUrl == null) {
+            return null;
+        }
+        Matcher matcher = URL_PATTERN.matcher(imageUrl);
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+
+    String createThumbnail(String imageKey) throws IOException {
+        BufferedImage source;
+        try (InputStream in = imageStore.open(imageKey)) {
+            source = ImageIO.read(in);
+        }
+        if (source == null) {
+            // No ImageIO reader for this format
+            return null;
+        }
+        byte[] jpeg = encodeJpeg(scaleToCover(source));
+        return imageStore.put(new ByteArrayInputStream(jpeg));
+    }
+
+    /** Scales to fill the thumbnail box and center-crops the overflow. */
+    private BufferedImage scaleToCover(BufferedImage source) {
+        double scale = Math.max((double) width / source.getWidth(), (double) height / source.getHeight());
+        int scaledWidth = (int) Math.ceil(source.getWidth() * scale);
+        int scaledHeight = (int) Math.ceil(source.getHeight() * scale);
+
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, (width - scaledWidth) / 2, (height - scaledHeight) / 2,
+                    scaledWidth, scaledHeight, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(0.8f);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
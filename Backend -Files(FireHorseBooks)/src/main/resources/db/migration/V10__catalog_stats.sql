@@ -0,0 +1,26 @@
+-- Seller dashboard totals, kept current with every stock and sales change.
+-- CatalogStatsService fills them from books and order_items when they are empty.
+create table book_stats (
+    book_id bigint not null,
+    title varchar(255) not null,
+    category varchar(255) not null,
+    price decimal(10,2) not null,
+    stock integer not null,
+    stock_value decimal(14,2) not null,
+    units_sold bigint not null,
+    revenue decimal(14,2) not null,
+    primary key (book_id)
+) engine=InnoDB;
+
+create index idx_book_stats_revenue on book_stats (revenue);
+create index idx_book_stats_stock on book_stats (stock);
+
+create table category_stats (
+    category varchar(255) not null,
+    books bigint not null,
+    stock_units bigint not null,
+    stock_value decimal(16,2) not null,
+    units_sold bigint not null,
+    revenue decimal(16,2) not null,
+    primary key (category)
+) engine=InnoDB;
@@ -0,0 +1,25 @@
+-- Keyset order history, and the archive old orders move to
+create index idx_orders_user_created on orders (user_id, created_at, id);
+create index idx_orders_created on orders (created_at, id);
+
+create table orders_archive (
+    id bigint not null,
+    user_id bigint not null,
+    order_date date not null,
+    total_amount decimal(10,2) not null,
+    status varchar(255) not null,
+    request_id varchar(36),
+    items ${text_type} not null,
+    created_at datetime(6) not null,
+    archived_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_orders_archive_user_created on orders_archive (user_id, created_at, id);
+
+create table archived_book_sales (
+    book_id bigint not null,
+    units bigint not null,
+    revenue decimal(14,2) not null,
+    primary key (book_id)
+) engine=InnoDB;
@@ -0,0 +1,24 @@
+-- Indexes for the per-user and per-order lookups, and one cart line per book.
+
+-- Fold duplicate cart lines into the oldest one before making (user_id, book_id) unique
+create table cart_items_merged as
+    select min(id) as id, sum(quantity) as quantity
+    from cart_items
+    group by user_id, book_id
+    having count(*) > 1;
+
+update cart_items
+    set quantity = (select m.quantity from cart_items_merged m where m.id = cart_items.id)
+    where id in (select id from cart_items_merged);
+
+delete from cart_items
+    where id not in (select id from (select min(id) as id from cart_items group by user_id, book_id) kept);
+
+drop table cart_items_merged;
+
+-- Serves findByUserId (leading column) and findByUserIdAndBookId, and lets addToCart upsert
+alter table cart_items add constraint uk_cart_items_user_book unique (user_id, book_id);
+
+-- Lines of a page of orders; lines of a book (these also take over from the foreign key indexes)
+create index idx_order_items_order on order_items (order_id);
+create index idx_order_items_book on order_items (book_id);
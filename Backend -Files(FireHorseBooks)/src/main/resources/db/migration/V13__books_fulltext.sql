@@ -0,0 +1,4 @@
+-- Word search of the reactive catalog service (MATCH ... AGAINST over these three
+-- columns). H2, which the tests run on, has no FULLTEXT and gets a plain index: the
+-- placeholder is "fulltext" on MySQL and empty there.
+create ${fulltext} index ft_books_search on books (title, author, category);
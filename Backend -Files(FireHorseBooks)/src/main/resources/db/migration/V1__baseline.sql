@@ -0,0 +1,67 @@
+-- Schema of the last release before migrations, as ddl-auto=update created it on
+-- MySQL (constraint names are Hibernate's). Databases that already have these
+-- tables are baselined at this version and get every later version applied.
+
+create table books (
+    id bigint not null auto_increment,
+    title varchar(255) not null,
+    author varchar(255) not null,
+    category varchar(255) not null,
+    price decimal(38,2) not null,
+    stock integer not null,
+    description ${text_type},
+    image longblob,
+    image_url varchar(255),
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create table users (
+    id bigint not null auto_increment,
+    name varchar(255) not null,
+    email varchar(255) not null,
+    password varchar(255) not null,
+    role varchar(255) not null,
+    store_verified bit,
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+alter table users add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+
+create table cart_items (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    book_id bigint not null,
+    quantity integer not null,
+    created_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+alter table cart_items add constraint FKhiu1jw80o45wfiw5tgok1xpkl foreign key (book_id) references books (id);
+
+create table orders (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    order_date date not null,
+    total_amount decimal(10,2) not null,
+    status varchar(255) not null,
+    created_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create table order_items (
+    id bigint not null auto_increment,
+    order_id bigint not null,
+    book_id bigint not null,
+    title varchar(255) not null,
+    price decimal(10,2) not null,
+    quantity integer not null,
+    created_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+alter table order_items add constraint FKi4ptndslo2pyfp9r1x0eulh9g foreign key (book_id) references books (id);
+alter table order_items add constraint FKbioxgbv59vetrxe0ejfubep1w foreign key (order_id) references orders (id);
@@ -0,0 +1,13 @@
+-- Cover metadata leaves the books row; the bytes live in the image store under the
+-- checksum. BookImageMigration moves covers still in books.image at startup and
+-- clears the column, which can then be dropped by hand.
+create table book_images (
+    book_id bigint not null,
+    content_type varchar(255) not null,
+    checksum varchar(64) not null,
+    size_bytes bigint not null,
+    updated_at datetime(6),
+    primary key (book_id)
+) engine=InnoDB;
+
+alter table book_images add constraint fk_book_images_book foreign key (book_id) references books (id);
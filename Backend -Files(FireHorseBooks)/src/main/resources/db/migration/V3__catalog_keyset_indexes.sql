@@ -0,0 +1,4 @@
+-- One index per catalog sort order, each ending in id so keyset pages are a range scan
+create index idx_books_created_at_id on books (created_at, id);
+create index idx_books_price_id on books (price, id);
+create index idx_books_title_id on books (title, id);
@@ -0,0 +1,2 @@
+-- Optimistic lock for book updates; stock is reserved with conditional updates that bump it
+alter table books add column version bigint default 0 not null;
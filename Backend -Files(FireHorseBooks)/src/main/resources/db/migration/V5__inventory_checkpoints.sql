@@ -0,0 +1,6 @@
+-- Last inventory journal segment flushed to books.stock (books.inventory.mode=ledger)
+create table inventory_checkpoints (
+    id bigint not null,
+    segment bigint not null,
+    primary key (id)
+) engine=InnoDB;
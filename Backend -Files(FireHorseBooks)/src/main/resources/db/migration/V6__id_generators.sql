@@ -0,0 +1,16 @@
+-- Pooled id generators, one row per table (see PooledTableIdGenerator). next_val
+-- is the highest id reserved so far, not the last one handed out: the next block
+-- starts at next_val + 1. Never lower it by hand. IdGeneratorSeeder moves each row
+-- past the ids AUTO_INCREMENT already handed out.
+create table id_generators (
+    entity varchar(255) not null,
+    next_val bigint,
+    primary key (entity)
+) engine=InnoDB;
+
+insert into id_generators (entity, next_val) values
+    ('books', 0),
+    ('users', 0),
+    ('cart_items', 0),
+    ('orders', 0),
+    ('order_items', 0);
@@ -0,0 +1,19 @@
+-- Bulk catalog import: ISBN to spot duplicates, and the progress of each import
+alter table books add column isbn varchar(13);
+
+create index idx_books_isbn on books (isbn);
+
+create table import_jobs (
+    id varchar(36) not null,
+    source varchar(1024) not null,
+    format varchar(10) not null,
+    status varchar(20) not null,
+    rows_processed bigint not null,
+    imported bigint not null,
+    duplicates bigint not null,
+    invalid bigint not null,
+    errors ${text_type},
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
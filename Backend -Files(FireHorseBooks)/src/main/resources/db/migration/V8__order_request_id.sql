@@ -0,0 +1,4 @@
+-- Checkout request that produced each order, so a replayed request is placed at most once
+alter table orders add column request_id varchar(36);
+
+alter table orders add constraint uk_orders_request_id unique (request_id);
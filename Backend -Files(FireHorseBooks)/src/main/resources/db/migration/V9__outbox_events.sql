@@ -0,0 +1,11 @@
+-- Transactional outbox: events are written with the change and relayed after commit
+create table outbox_events (
+    id bigint not null,
+    type varchar(40) not null,
+    payload ${text_type} not null,
+    attempts integer not null,
+    created_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+insert into id_generators (entity, next_val) values ('outbox_events', 0);
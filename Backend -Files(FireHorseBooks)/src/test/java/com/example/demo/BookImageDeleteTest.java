@@ -0,0 +1,163 @@
+package com.example.demo;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.dto.ImageMetadata;
+import com.example.demo.entity.Book;
+import com.example.demo.entity.Order;
+import com.example.demo.entity.OrderItem;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.repository.OrderRepository;
+import com.example.demo.service.BookImageService;
+import com.example.demo.service.BookService;
+import com.example.demo.service.CatalogCache;
+import com.example.demo.service.CatalogStatsService;
+import com.example.demo.service.FacetService;
+import com.example.demo.service.ImageStore;
+import com.example.demo.service.InventoryLedger;
+import com.example.demo.service.LocalImageStore;
+import com.example.demo.service.OutboxService;
+import com.example.demo.service.SearchIndexService;
+import com.example.demo.service.SuggestionService;
+import com.example.demo.service.ThumbnailService;
+
+/**
+ * Deletes books for real, outside a test transaction, so the foreign keys
+ * fire at commit the way they do in production.
+ */
+@DataJpaTest(properties = "books.images.dir=target/test-images/delete")
+@Import({ BookService.class, BookImageService.class, LocalImageStore.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BookImageDeleteTest {
+
+    @MockitoBean
+    private SearchIndexService searchIndexService;
+
+    @MockitoBean
+    private SuggestionService suggestionService;
+
+    @MockitoBean
+    private OutboxService outboxService;
+
+    @MockitoBean
+    private CatalogStatsService catalogStatsService;
+
+    @MockitoBean
+    private FacetService facetService;
+
+    @MockitoBean
+    private CatalogCache catalogCache;
+
+    @MockitoBean
+    private InventoryLedger inventoryLedger;
+
+    @MockitoBean
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookImageService bookImageService;
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    public void testDeleteBook_OnAnOrderKeepsItsCover() throws Exception {
+        byte[] cover = bytes("ordered cover");
+        Book book = bookWithCover("Ordered", cover);
+        String thumbnailKey = imageStore.put(new ByteArrayInputStream(bytes("ordered thumbnail")));
+        bookRepository.updateImageUrl(book.getId(), ThumbnailService.urlOf(thumbnailKey));
+
+        Order order = new Order();
+        order.setUserId(7L);
+        order.setOrderDate(LocalDate.now());
+        order.setTotalAmount(new BigDecimal("9.99"));
+        OrderItem item = new OrderItem();
+        item.setOrder(order);
+        item.setBook(book);
+        item.setTitle(book.getTitle());
+        item.setPrice(new BigDecimal("9.99"));
+        item.setQuantity(1);
+        order.setItems(List.of(item));
+        orderRepository.save(order);
+
+        assertThrows(DataIntegrityViolationException.class, () -> bookService.deleteBook(book.getId()));
+
+        ImageMetadata image = bookImageService.getImageMetadata(book.getId());
+        assertNotNull(image, "The rollback should restore the cover row");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bookImageService.writeImage(image.getKey(), 0, image.getLength(), out);
+        assertArrayEquals(cover, out.toByteArray());
+        assertTrue(imageStore.exists(thumbnailKey));
+    }
+
+    @Test
+    public void testDeleteBook_RemovesCoverAndThumbnail() throws Exception {
+        Book book = bookWithCover("Unsold", bytes("unsold cover"));
+        String coverKey = bookImageService.getImageMetadata(book.getId()).getKey();
+        String thumbnailKey = imageStore.put(new ByteArrayInputStream(bytes("unsold thumbnail")));
+        bookRepository.updateImageUrl(book.getId(), ThumbnailService.urlOf(thumbnailKey));
+
+        bookService.deleteBook(book.getId());
+
+        assertNull(bookImageService.getImageMetadata(book.getId()));
+        assertFalse(imageStore.exists(coverKey));
+        assertFalse(imageStore.exists(thumbnailKey));
+    }
+
+    private Book bookWithCover(String title, byte[] cover) {
+        return transactionTemplate.execute(status -> {
+            Book book = new Book();
+            book.setTitle(title);
+            book.setAuthor("Author");
+            book.setCategory("Fiction");
+            book.setPrice(new BigDecimal("9.99"));
+            book.setStock(3);
+            Book saved = bookRepository.save(book);
+            try {
+                bookImageService.saveImage(saved, new ByteArrayInputStream(cover), "image/png");
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return saved;
+        });
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
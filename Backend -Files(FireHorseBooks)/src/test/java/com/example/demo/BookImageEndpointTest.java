@@ -0,0 +1,90 @@
+package com.example.demo;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.example.demo.controller.BookController;
+import com.example.demo.dto.ImageMetadata;
+import com.example.demo.service.BookImageService;
+import com.example.demo.service.BookService;
+
+@ExtendWith(MockitoExtension.class)
+public class BookImageEndpointTest {
+
+    private static final byte[] IMAGE = "0123456789".getBytes(StandardCharsets.US_ASCII);
+    private static final String ETAG = "\"abc\"";
+
+    @Mock
+    private BookService bookService;
+
+    @Mock
+    private BookImageService bookImageService;
+
+    @InjectMocks
+    private BookController bookController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(bookController).build();
+        when(bookImageService.getImageMetadata(1L))
+                .thenReturn(new ImageMetadata("abc", IMAGE.length, "image/png", ETAG));
+    }
+
+    @Test
+    public void testMatchingEtag_ReturnsNotModified() throws Exception {
+        mockMvc.perform(get("/api/books/1/image").header("If-None-Match", ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", ETAG));
+    }
+
+    @Test
+    public void testRange_StreamsRequestedBytes() throws Exception {
+        doAnswer(i -> {
+            long start = i.getArgument(1);
+            long count = i.getArgument(2);
+            OutputStream out = i.getArgument(3);
+            out.write(IMAGE, (int) start, (int) count);
+            return null;
+        }).when(bookImageService).writeImage(eq("abc"), any(Long.class), any(Long.class), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/books/1/image").header("Range", "bytes=2-5"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 2-5/10"))
+                .andExpect(header().string("Content-Type", "image/png"))
+                .andExpect(content().string("2345"));
+    }
+
+    @Test
+    public void testUnsatisfiableRange_Returns416() throws Exception {
+        mockMvc.perform(get("/api/books/1/image").header("Range", "bytes=50-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */10"));
+    }
+}
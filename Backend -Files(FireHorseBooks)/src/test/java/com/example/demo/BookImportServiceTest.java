@@ -0,0 +1,134 @@
+package com.example.demo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.entity.Book;
+import com.example.demo.entity.ImportJob;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.repository.ImportJobRepository;
+import com.example.demo.service.BookImportService;
+import com.example.demo.service.CatalogCache;
+import com.example.demo.service.CatalogStatsService;
+import com.example.demo.service.OutboxService;
+
+// Chunks commit on their own, so the test runs outside a test transaction
+@DataJpaTest
+@Import(BookImportService.class)
+@TestPropertySource(properties = "books.import.chunk-size=2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BookImportServiceTest {
+
+    private static final String HEADER = "title,author,category,price,stock,isbn\n";
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    @MockitoBean
+    private OutboxService outboxService;
+
+    @MockitoBean
+    private CatalogStatsService catalogStatsService;
+
+    @MockitoBean
+    private CatalogCache catalogCache;
+
+    @MockitoBean(name = "importExecutor")
+    private Executor importExecutor;
+
+    @TempDir
+    private Path dir;
+
+    @BeforeEach
+    public void setUp() {
+        Book book = new Book();
+        book.setTitle("Dune");
+        book.setAuthor("Frank Herbert");
+        book.setCategory("Fiction");
+        book.setPrice(BigDecimal.TEN);
+        book.setStock(3);
+        bookRepository.save(book);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        importJobRepository.deleteAll();
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    public void testImportFile_SkipsInvalidRowsAndDuplicates() throws IOException {
+        Path file = write("catalog.csv", HEADER
+                + "Emma,Jane Austen,Classics,7.50,4,978-0-14-143958-7\n"
+                + "Dune,Frank Herbert,Fiction,9.99,1,\n"
+                + "Emma (reissue),Jane Austen,Classics,8.00,2,9780141439587\n"
+                + "Persuasion,Jane Austen,Classics,-1,2,\n"
+                + ",Nobody,Fiction,1,1,\n");
+
+        ImportJob job = bookImportService.importFile(file, "csv");
+
+        assertEquals(ImportJob.COMPLETED, job.getStatus());
+        assertEquals(5, job.getRowsProcessed());
+        assertEquals(1, job.getImported());
+        assertEquals(2, job.getDuplicates());
+        assertEquals(2, job.getInvalid());
+        assertTrue(job.getErrors().contains("row 4: price must not be negative"));
+        assertTrue(job.getErrors().contains("row 5: title is required"));
+        assertEquals(List.of("9780141439587"), bookRepository.findExistingIsbns(List.of("9780141439587")));
+        assertEquals(2, bookRepository.count());
+    }
+
+    @Test
+    public void testImportFile_ResumesAfterCheckpoint() throws IOException {
+        Path file = write("catalog.jsonl",
+                "{\"title\":\"A\",\"author\":\"X\",\"category\":\"Fiction\",\"price\":1,\"stock\":1}\n"
+                + "{\"title\":\"B\",\"author\":\"X\",\"category\":\"Fiction\",\"price\":1,\"stock\":1}\n"
+                + "{\"title\":\"C\",\"author\":\"X\",\"category\":\"Fiction\",\"price\":1,\"stock\":1}\n");
+        // An earlier run committed the first two rows, then stopped
+        ImportJob interrupted = new ImportJob();
+        interrupted.setId("interrupted");
+        interrupted.setSource(file.toAbsolutePath().normalize().toString());
+        interrupted.setFormat("jsonl");
+        interrupted.setStatus(ImportJob.RUNNING);
+        interrupted.setRowsProcessed(2);
+        interrupted.setImported(2);
+        importJobRepository.save(interrupted);
+
+        ImportJob job = bookImportService.importFile(file, "jsonl");
+
+        assertEquals("interrupted", job.getId());
+        assertEquals(ImportJob.COMPLETED, job.getStatus());
+        assertEquals(3, job.getRowsProcessed());
+        assertEquals(3, job.getImported());
+        assertEquals(2, bookRepository.count());
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(dir.resolve(name), content);
+    }
+}
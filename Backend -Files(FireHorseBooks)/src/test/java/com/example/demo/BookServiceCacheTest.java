@@ -0,0 +1,174 @@
+package com.example.demo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import com.example.demo.dto.BookSummary;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.service.BookImageService;
+import com.example.demo.service.BookService;
+import com.example.demo.service.CatalogCache;
+import com.example.demo.service.CatalogStatsService;
+import com.example.demo.service.FacetService;
+import com.example.demo.service.InventoryLedger;
+import com.example.demo.service.OutboxService;
+import com.example.demo.service.SearchIndexService;
+import com.example.demo.service.SuggestionService;
+
+@SpringJUnitConfig
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class BookServiceCacheTest {
+
+    @Configuration
+    @EnableCaching
+    static class Config {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new CaffeineCacheManager(CatalogCache.BOOK, CatalogCache.LIST, CatalogCache.SEARCH);
+        }
+
+        @Bean
+        CatalogCache catalogCache() {
+            return new CatalogCache();
+        }
+
+        @Bean
+        BookService bookService() {
+            return new BookService();
+        }
+    }
+
+    @MockitoBean
+    private BookRepository bookRepository;
+
+    @MockitoBean
+    private BookImageService bookImageService;
+
+    @MockitoBean
+    private SearchIndexService searchIndexService;
+
+    @MockitoBean
+    private SuggestionService suggestionService;
+
+    @MockitoBean
+    private FacetService facetService;
+
+    @MockitoBean
+    private InventoryLedger inventoryLedger;
+
+    @MockitoBean
+    private OutboxService outboxService;
+
+    @MockitoBean
+    private CatalogStatsService catalogStatsService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Test
+    public void testGetBookSummary_ReadThroughAndEvict() {
+        BookSummary summary = summary(1L);
+        when(bookRepository.findSummaryById(1L)).thenReturn(Optional.of(summary));
+
+        assertSame(summary, bookService.getBookSummary(1L));
+        assertSame(summary, bookService.getBookSummary(1L));
+        verify(bookRepository, times(1)).findSummaryById(1L);
+
+        catalogCache.evictBook(1L);
+        bookService.getBookSummary(1L);
+        verify(bookRepository, times(2)).findSummaryById(1L);
+    }
+
+    @Test
+    public void testGetBookSummary_ConcurrentMissesLoadOnce() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        when(bookRepository.findSummaryById(2L)).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return Optional.of(summary(2L));
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<BookSummary>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return bookService.getBookSummary(2L);
+                }));
+            }
+            start.countDown();
+            BookSummary first = results.get(0).get();
+            for (Future<BookSummary> result : results) {
+                assertSame(first, result.get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        verify(bookRepository, times(1)).findSummaryById(2L);
+    }
+
+    @Test
+    public void testGetAllBooks_OrderTrafficKeepsListCached() {
+        when(bookRepository.findAllSummaries()).thenReturn(List.of(summary(1L), summary(2L), summary(3L)));
+        bookService.getAllBooks();
+
+        for (int order = 1; order <= 50; order++) {
+            long bookId = order % 3 + 1;
+            int remaining = 100 - order;
+            when(bookRepository.findStockByIds(List.of(bookId)))
+                    .thenReturn(List.<Object[]>of(new Object[] { bookId, remaining }));
+            catalogCache.evictStock(bookId);
+
+            List<BookSummary> books = bookService.getAllBooks();
+            assertEquals(remaining, books.get((int) bookId - 1).getStock());
+        }
+        // Every read after the first was a hit; only the changed stock was read
+        verify(bookRepository, times(1)).findAllSummaries();
+        verify(bookRepository, times(50)).findStockByIds(anyCollection());
+    }
+
+    @Test
+    public void testGetAllBooks_OtherChangesStillReloadTheList() {
+        when(bookRepository.findAllSummaries()).thenReturn(List.of(summary(1L)));
+        bookService.getAllBooks();
+
+        catalogCache.evictBook(1L);
+        bookService.getAllBooks();
+
+        verify(bookRepository, times(2)).findAllSummaries();
+    }
+
+    private static BookSummary summary(Long id) {
+        return new BookSummary(id, "Title " + id, "Author", new BigDecimal("9.99"), "Fiction", 1, null, null, false,
+                LocalDateTime.now(), LocalDateTime.now());
+    }
+}
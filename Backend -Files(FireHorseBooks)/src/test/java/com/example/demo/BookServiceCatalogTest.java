@@ -0,0 +1,81 @@
+package com.example.demo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.demo.dto.BookSlice;
+import com.example.demo.dto.BookSummary;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.service.BookService;
+
+@ExtendWith(MockitoExtension.class)
+public class BookServiceCatalogTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @InjectMocks
+    private BookService bookService;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(bookService, "defaultPageSize", 20);
+        ReflectionTestUtils.setField(bookService, "maxPageSize", 100);
+    }
+
+    @Test
+    public void testCatalogPage_CursorSeeksPastLastRow() {
+        List<BookSummary> firstRows = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            firstRows.add(book(id, new BigDecimal("9.99")));
+        }
+        when(bookRepository.findByPriceAsc(Limit.of(3))).thenReturn(firstRows);
+
+        BookSlice first = bookService.getCatalogPage("price_asc", null, 2);
+
+        assertEquals(2, first.getItems().size());
+        assertTrue(first.isHasNext());
+
+        when(bookRepository.findByPriceAscAfter(eq(new BigDecimal("9.99")), eq(2L), eq(Limit.of(3))))
+                .thenReturn(List.of(book(3L, new BigDecimal("9.99"))));
+
+        BookSlice second = bookService.getCatalogPage("price_asc", first.getNextCursor(), 2);
+
+        assertEquals(1, second.getItems().size());
+        assertFalse(second.isHasNext());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    public void testCatalogPage_RejectsCursorFromAnotherSort() {
+        when(bookRepository.findByPriceAsc(Limit.of(2)))
+                .thenReturn(List.of(book(1L, BigDecimal.ONE), book(2L, BigDecimal.TEN)));
+        String cursor = bookService.getCatalogPage("price_asc", null, 1).getNextCursor();
+
+        assertThrows(IllegalArgumentException.class, () -> bookService.getCatalogPage("title", cursor, 1));
+    }
+
+    private static BookSummary book(Long id, BigDecimal price) {
+        return new BookSummary(id, "Title " + id, "Author", price, "Fiction", 1, null, null, false,
+                LocalDateTime.now(), LocalDateTime.now());
+    }
+}
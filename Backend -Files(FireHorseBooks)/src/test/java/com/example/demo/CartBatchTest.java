@@ -0,0 +1,101 @@
+package com.example.demo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.example.demo.dto.CartLineView;
+import com.example.demo.dto.CartOperation;
+import com.example.demo.entity.Book;
+import com.example.demo.entity.CartItem;
+import com.example.demo.service.CartService;
+import com.example.demo.service.JpaCartStore;
+
+@DataJpaTest(properties = "books.cart.store=jpa")
+@Import({ CartService.class, JpaCartStore.class })
+public class CartBatchTest {
+
+    private static final Long USER_ID = 3L;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CartService cartService;
+
+    private final List<Long> bookIds = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        for (int i = 0; i < 3; i++) {
+            Book book = new Book();
+            book.setTitle("Title " + i);
+            book.setAuthor("Author");
+            book.setCategory("Fiction");
+            book.setPrice(BigDecimal.TEN);
+            book.setStock(10);
+            bookIds.add(entityManager.persist(book).getId());
+        }
+        CartItem existing = new CartItem();
+        existing.setUserId(USER_ID);
+        existing.setBook(entityManager.find(Book.class, bookIds.get(0)));
+        existing.setQuantity(2);
+        entityManager.persist(existing);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void testApplyBatch_FoldsOperationsPerBook() {
+        List<CartLineView> cart = cartService.applyBatch(USER_ID, List.of(
+                new CartOperation("add", bookIds.get(0), 1),
+                new CartOperation("add", bookIds.get(1), 2),
+                new CartOperation("add", bookIds.get(1), 3),
+                new CartOperation("add", bookIds.get(2), 1),
+                new CartOperation("remove", bookIds.get(2), null)));
+
+        assertEquals(2, cart.size());
+        assertEquals(bookIds.get(0), cart.get(0).getBookId());
+        assertEquals(3, cart.get(0).getQuantity());
+        assertEquals(bookIds.get(1), cart.get(1).getBookId());
+        assertEquals(5, cart.get(1).getQuantity());
+    }
+
+    @Test
+    public void testAddToCart_RaisesQuantityOfExistingLine() {
+        CartItem first = cartService.addToCart(bookIds.get(0), USER_ID, 3);
+        CartItem added = cartService.addToCart(bookIds.get(1), USER_ID, 1);
+        entityManager.clear();
+        CartItem again = cartService.addToCart(bookIds.get(1), USER_ID, 4);
+
+        assertEquals(5, first.getQuantity());
+        assertEquals(added.getId(), again.getId());
+        assertEquals(5, again.getQuantity());
+        assertEquals(2, cartService.getCartByUser(USER_ID).size());
+    }
+
+    @Test
+    public void testApplyBatch_SetZeroRemovesLine() {
+        List<CartLineView> cart = cartService.applyBatch(USER_ID, List.of(
+                new CartOperation("set", bookIds.get(0), 0)));
+
+        assertEquals(0, cart.size());
+    }
+
+    @Test
+    public void testApplyBatch_RejectsUnknownBook() {
+        assertThrows(RuntimeException.class, () -> cartService.applyBatch(USER_ID, List.of(
+                new CartOperation("add", bookIds.get(1), 1),
+                new CartOperation("add", 999L, 1))));
+    }
+}
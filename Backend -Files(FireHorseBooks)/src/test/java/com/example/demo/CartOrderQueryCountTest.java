@@ -0,0 +1,132 @@
+package com.example.demo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.example.demo.dto.CartLineView;
+import com.example.demo.dto.OrderHistorySlice;
+import com.example.demo.entity.Book;
+import com.example.demo.entity.CartItem;
+import com.example.demo.entity.Order;
+import com.example.demo.entity.OrderItem;
+import com.example.demo.service.CartService;
+import com.example.demo.service.JpaCartStore;
+import com.example.demo.service.OrderArchiveService;
+import com.example.demo.service.CatalogCache;
+import com.example.demo.service.CatalogStatsService;
+import com.example.demo.service.OrderService;
+import com.example.demo.service.OutboxService;
+import com.example.demo.service.StockReservationService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = { "spring.jpa.properties.hibernate.generate_statistics=true", "books.cart.store=jpa" })
+@Import({ CartService.class, JpaCartStore.class, OrderService.class, OrderArchiveService.class })
+public class CartOrderQueryCountTest {
+
+    private static final Long USER_ID = 7L;
+
+    @MockitoBean
+    private StockReservationService stockReservationService;
+
+    @MockitoBean
+    private OutboxService outboxService;
+
+    @MockitoBean
+    private CatalogStatsService catalogStatsService;
+
+    @MockitoBean
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private OrderService orderService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Book book = new Book();
+            book.setTitle("Title " + i);
+            book.setAuthor("Author " + i);
+            book.setCategory("Fiction");
+            book.setPrice(new BigDecimal("9.99"));
+            book.setStock(10);
+            books.add(entityManager.persist(book));
+
+            CartItem item = new CartItem();
+            item.setUserId(USER_ID);
+            item.setBook(book);
+            item.setQuantity(1);
+            entityManager.persist(item);
+        }
+        for (int o = 0; o < 50; o++) {
+            Order order = new Order();
+            order.setUserId(USER_ID);
+            order.setOrderDate(LocalDate.now());
+            order.setTotalAmount(new BigDecimal("19.98"));
+            List<OrderItem> items = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                OrderItem item = new OrderItem();
+                item.setOrder(order);
+                item.setBook(books.get((o + i) % books.size()));
+                item.setTitle("Title");
+                item.setPrice(new BigDecimal("9.99"));
+                item.setQuantity(1);
+                items.add(item);
+            }
+            order.setItems(items);
+            entityManager.persist(order);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        entityManagerFactory.getCache().evictAll();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void testCartLines_OneStatement() {
+        List<CartLineView> lines = cartService.getCartByUser(USER_ID);
+
+        assertEquals(20, lines.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testOrderHistoryPage_TwoStatements() {
+        OrderHistorySlice page = orderService.getOrderHistory(USER_ID, null, 20);
+
+        assertEquals(20, page.getItems().size());
+        assertTrue(page.isHasNext());
+        assertEquals(2, page.getItems().get(0).getItems().size());
+        // A full page from orders never reaches the archive
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+}
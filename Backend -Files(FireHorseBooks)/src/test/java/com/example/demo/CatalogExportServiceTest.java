@@ -0,0 +1,95 @@
+package com.example.demo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import com.example.demo.entity.Book;
+import com.example.demo.service.CatalogExportService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@DataJpaTest
+@Import(CatalogExportService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@TestPropertySource(properties = "books.export.fetch-size=2")
+public class CatalogExportServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CatalogExportService catalogExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    public void setUp() {
+        for (int i = 0; i < 5; i++) {
+            Book book = new Book();
+            book.setTitle("Title " + i);
+            book.setAuthor("Author");
+            book.setCategory("Fiction");
+            book.setPrice(new BigDecimal("9.99"));
+            book.setStock(i);
+            book.setDescription("Line one, \"quoted\"\nline two");
+            entityManager.persist(book);
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    public void testExport_WritesOneJsonObjectPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = catalogExportService.export("ndjson", out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(5, rows);
+        assertEquals(6, lines.length);
+        assertEquals("", lines[5]);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("Title 0", first.get("title").asText());
+        assertEquals("Line one, \"quoted\"\nline two", first.get("description").asText());
+        assertEquals(4, objectMapper.readTree(lines[4]).get("stock").asInt());
+    }
+
+    @Test
+    public void testExport_WritesCsvWithHeader() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        catalogExportService.export("csv", out);
+
+        List<CSVRecord> records = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build()
+                .parse(new StringReader(out.toString(StandardCharsets.UTF_8))).getRecords();
+        assertEquals(5, records.size());
+        assertEquals("Title 3", records.get(3).get("title"));
+        assertEquals("9.99", records.get(3).get("price"));
+        assertEquals("Line one, \"quoted\"\nline two", records.get(3).get("description"));
+    }
+
+    @Test
+    public void testNormalizeFormat_RejectsUnknownFormat() {
+        assertEquals(CatalogExportService.NDJSON, CatalogExportService.normalizeFormat(null));
+        assertThrows(IllegalArgumentException.class, () -> CatalogExportService.normalizeFormat("xml"));
+    }
+}
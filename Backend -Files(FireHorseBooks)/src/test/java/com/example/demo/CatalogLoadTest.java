@@ -0,0 +1,112 @@
+package com.example.demo;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Load test against a running server; skipped unless load.baseUrl is set.
+ * Keeps load.concurrency requests in flight (one connection each) over a
+ * read-heavy mix of book, catalog page and cart requests, then prints the
+ * throughput and latency percentiles. Run it once per threading mode:
+ *
+ * <pre>
+ * java -jar target/FireHorse-0.0.1-SNAPSHOT.jar --spring.threads.virtual.enabled=true|false
+ * mvn test -Dtest=CatalogLoadTest -Dload.baseUrl=http://localhost:8080 -Dload.label=virtual
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "load.baseUrl", matches = ".+")
+public class CatalogLoadTest {
+
+    private final String baseUrl = System.getProperty("load.baseUrl");
+    private final String label = System.getProperty("load.label", "server");
+    private final int concurrency = Integer.getInteger("load.concurrency", 5000);
+    private final int requests = Integer.getInteger("load.requests", 100_000);
+    private final int users = Integer.getInteger("load.users", 1000);
+
+    @Test
+    public void testCatalogReadMix() throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        List<Long> bookIds = bookIds(client);
+        assertTrue(!bookIds.isEmpty(), "Catalog is empty; import some books first");
+
+        long[] latencies = new long[requests];
+        AtomicInteger errors = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(concurrency);
+        CountDownLatch done = new CountDownLatch(requests);
+
+        long started = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            int index = i;
+            long sent = System.nanoTime();
+            client.sendAsync(request(bookIds), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        latencies[index] = System.nanoTime() - sent;
+                        if (failure != null || response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                        inFlight.release();
+                        done.countDown();
+                    });
+        }
+        done.await();
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        Arrays.sort(latencies);
+        System.out.printf("[%s] %d requests, %d in flight: %.0f req/s, p50 %.1f ms, p99 %.1f ms, max %.1f ms, %d errors%n",
+                label, requests, concurrency, requests / seconds, millis(latencies, 0.50), millis(latencies, 0.99),
+                latencies[requests - 1] / 1e6, errors.get());
+        assertTrue(errors.get() < requests / 100, "More than 1% of requests failed");
+    }
+
+    // 70% single book, 20% catalog page, 10% cart view
+    private HttpRequest request(List<Long> bookIds) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int pick = random.nextInt(10);
+        String path;
+        if (pick < 7) {
+            path = "/api/books/" + bookIds.get(random.nextInt(bookIds.size()));
+        } else if (pick < 9) {
+            path = "/api/books?size=20";
+        } else {
+            path = "/api/cart/user/" + (1 + random.nextInt(users));
+        }
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(60)).build();
+    }
+
+    private List<Long> bookIds(HttpClient client) throws Exception {
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/books?size=100")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode item : new ObjectMapper().readTree(response.body()).get("items")) {
+            ids.add(item.get("id").asLong());
+        }
+        return ids;
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1e6;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.demo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.example.demo.dto.SellerDashboard;
+import com.example.demo.entity.Book;
+import com.example.demo.entity.CategoryStats;
+import com.example.demo.entity.Order;
+import com.example.demo.entity.OrderItem;
+import com.example.demo.service.CatalogStatsService;
+
+@DataJpaTest
+@Import(CatalogStatsService.class)
+public class CatalogStatsServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CatalogStatsService catalogStatsService;
+
+    private Book dune;
+    private Book emma;
+    private Book odes;
+
+    @BeforeEach
+    public void setUp() {
+        dune = book("Dune", "StatsFiction", "10.00", 5);
+        emma = book("Emma", "StatsFiction", "4.00", 10);
+        odes = book("Odes", "StatsPoetry", "7.50", 2);
+        catalogStatsService.booksAdded(List.of(dune, emma, odes));
+    }
+
+    @Test
+    public void testDashboard_FollowsStockAndSales() {
+        catalogStatsService.stockChanged(Map.of(dune.getId(), 3));
+        catalogStatsService.sold(List.of(order(dune, 2)));
+        catalogStatsService.stockChanged(Map.of(emma.getId(), 0));
+        catalogStatsService.bookDeleted(odes.getId());
+
+        SellerDashboard dashboard = catalogStatsService.dashboard();
+        CategoryStats fiction = category(dashboard, "StatsFiction");
+        assertEquals(2, fiction.getBooks());
+        assertEquals(3, fiction.getStockUnits());
+        assertEquals(0, new BigDecimal("30.00").compareTo(fiction.getStockValue()));
+        assertEquals(2, fiction.getUnitsSold());
+        assertEquals(0, new BigDecimal("20.00").compareTo(fiction.getRevenue()));
+        // Deleted before it sold anything
+        assertFalse(dashboard.getCategories().stream().anyMatch(c -> c.getCategory().equals("StatsPoetry")));
+        assertEquals(dune.getId(), dashboard.getTopSellers().get(0).getBookId());
+        assertEquals(emma.getId(), dashboard.getLowStock().get(0).getBookId());
+    }
+
+    @Test
+    public void testRefreshStock_CopiesCommittedStock() {
+        catalogStatsService.stockChanged(Map.of(dune.getId(), 4));
+        dune.setStock(1);
+        entityManager.persistAndFlush(dune);
+
+        catalogStatsService.refreshStock(List.of(dune.getId()));
+        // Repeating it, as a redelivered event would, changes nothing
+        catalogStatsService.refreshStock(List.of(dune.getId()));
+
+        CategoryStats fiction = category(catalogStatsService.dashboard(), "StatsFiction");
+        assertEquals(11, fiction.getStockUnits());
+        assertEquals(0, new BigDecimal("50.00").compareTo(fiction.getStockValue()));
+    }
+
+    @Test
+    public void testRebuild_MatchesIncrementalTotals() {
+        catalogStatsService.sold(List.of(order(odes, 1)));
+        SellerDashboard incremental = catalogStatsService.dashboard();
+
+        // The order is not in order_items, so only its sales should go
+        catalogStatsService.rebuild();
+        entityManager.clear();
+        SellerDashboard rebuilt = catalogStatsService.dashboard();
+
+        assertEquals(incremental.getBooks(), rebuilt.getBooks());
+        assertEquals(incremental.getStockUnits(), rebuilt.getStockUnits());
+        assertEquals(0, incremental.getStockValue().compareTo(rebuilt.getStockValue()));
+        assertEquals(incremental.getUnitsSold() - 1, rebuilt.getUnitsSold());
+    }
+
+    private Book book(String title, String category, String price, int stock) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor("Author");
+        book.setCategory(category);
+        book.setPrice(new BigDecimal(price));
+        book.setStock(stock);
+        return entityManager.persistAndFlush(book);
+    }
+
+    private static Order order(Book book, int quantity) {
+        OrderItem item = new OrderItem();
+        item.setBook(book);
+        item.setQuantity(quantity);
+        item.setPrice(book.getPrice());
+        Order order = new Order();
+        order.setItems(List.of(item));
+        return order;
+    }
+
+    private static CategoryStats category(SellerDashboard dashboard, String name) {
+        return dashboard.getCategories().stream()
+                .filter(c -> c.getCategory().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+}
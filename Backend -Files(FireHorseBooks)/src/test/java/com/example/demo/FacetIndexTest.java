@@ -0,0 +1,77 @@
+package com.example.demo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.dto.FacetQuery;
+import com.example.demo.service.FacetIndex;
+import com.example.demo.service.FacetService;
+
+public class FacetIndexTest {
+
+    private FacetIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new FacetIndex(List.of(BigDecimal.ZERO, BigDecimal.TEN, new BigDecimal("25")));
+        index.put(1L, "SciFi", "Herbert", new BigDecimal("9.99"), 3);
+        index.put(2L, "SciFi", "Herbert", new BigDecimal("12.00"), 0);
+        index.put(3L, "Fantasy", "Tolkien", new BigDecimal("30.00"), 5);
+    }
+
+    @Test
+    public void testQuery_FiltersByIntersection() {
+        FacetIndex.Match match = index.query(
+                new FacetQuery(List.of("SciFi"), null, null, true), 0, 10, 10);
+
+        assertEquals(List.of(1L), match.getIds());
+        assertEquals(1, match.getTotal());
+    }
+
+    @Test
+    public void testQuery_FacetCountsIgnoreOwnDimension() {
+        FacetIndex.Match match = index.query(
+                new FacetQuery(List.of("SciFi"), null, null, false), 0, 10, 10);
+
+        assertEquals(2L, match.getFacets().get(FacetIndex.CATEGORY).get("SciFi"));
+        assertEquals(1L, match.getFacets().get(FacetIndex.CATEGORY).get("Fantasy"));
+        assertEquals(1L, match.getFacets().get(FacetIndex.PRICE).get("0-10"));
+        assertEquals(1L, match.getFacets().get(FacetIndex.PRICE).get("10-25"));
+        assertEquals(0L, match.getFacets().get(FacetIndex.PRICE).get("25+"));
+        assertEquals(1L, match.getFacets().get(FacetIndex.IN_STOCK).get("false"));
+    }
+
+    @Test
+    public void testUpdates_MoveBooksBetweenBitmaps() {
+        index.updateStock(2L, 4);
+        index.put(3L, "SciFi", "Tolkien", new BigDecimal("30.00"), 5);
+        index.remove(1L);
+
+        FacetIndex.Match match = index.query(
+                new FacetQuery(List.of("SciFi"), null, null, true), 0, 10, 10);
+
+        assertEquals(List.of(3L, 2L), match.getIds());
+        assertEquals(null, match.getFacets().get(FacetIndex.CATEGORY).get("Fantasy"));
+    }
+
+    @Test
+    public void testQuery_RejectsUnknownPriceRange() {
+        assertThrows(IllegalArgumentException.class, () -> index.query(
+                new FacetQuery(null, null, List.of("5-6"), false), 0, 10, 10));
+    }
+
+    @Test
+    public void testBrowse_RejectsPagesPastTheResultWindow() {
+        FacetService facets = new FacetService("0,10,25");
+        FacetQuery all = new FacetQuery();
+
+        assertThrows(IllegalArgumentException.class, () -> facets.browse(all, 100, 100));
+        assertThrows(IllegalArgumentException.class, () -> facets.browse(all, Integer.MAX_VALUE, 100));
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.demo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.entity.Book;
+import com.example.demo.entity.Order;
+import com.example.demo.entity.OrderItem;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.service.IdGeneratorSeeder;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(IdGeneratorSeeder.class)
+public class IdGenerationTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IdGeneratorSeeder seeder;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Test
+    public void testOrderItems_InsertedInBatches() {
+        Book book = entityManager.persistAndFlush(book());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Order order = new Order();
+        order.setUserId(1L);
+        order.setOrderDate(LocalDate.now());
+        order.setTotalAmount(new BigDecimal("300"));
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            OrderItem item = new OrderItem();
+            item.setOrder(order);
+            item.setBook(book);
+            item.setTitle("Title");
+            item.setPrice(BigDecimal.TEN);
+            item.setQuantity(1);
+            items.add(item);
+        }
+        order.setItems(items);
+        entityManager.persist(order);
+        entityManager.flush();
+
+        // One statement for the order, one reused for both batches of items
+        assertEquals(31, statistics.getEntityInsertCount());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void testSeeder_SkipsIdsAlreadyInTable() {
+        // Outside a test transaction: the generator allocates ids in its own
+        // transaction and must see the seeded row
+        jdbcTemplate.update("INSERT INTO books (id, title, author, price, category, stock, version) "
+                + "VALUES (1000, 'Legacy', 'Author', 1, 'Fiction', 1, 0)");
+
+        seeder.seed();
+        Book book = bookRepository.save(book());
+
+        assertEquals(1001L, book.getId());
+    }
+
+    private static Book book() {
+        Book book = new Book();
+        book.setTitle("Title");
+        book.setAuthor("Author");
+        book.setCategory("Fiction");
+        book.setPrice(BigDecimal.TEN);
+        book.setStock(5);
+        return book;
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.demo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.repository.InventoryCheckpointRepository;
+import com.example.demo.service.CatalogCache;
+import com.example.demo.service.CatalogStatsService;
+import com.example.demo.service.InventoryJournal;
+import com.example.demo.service.InventoryLedger;
+import com.example.demo.service.StockReservationService.Reservation;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+
+public class InventoryLedgerTest {
+
+    @TempDir
+    Path journalDir;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testReserve_NeverGoesBelowZeroUnderContention() throws Exception {
+        InventoryLedger ledger = newLedger(Map.of(1L, 100L));
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            attempts.add(pool.submit(() -> ledger.reserve(Map.of(1L, 1)).isComplete()));
+        }
+        int reserved = 0;
+        for (Future<Boolean> attempt : attempts) {
+            reserved += attempt.get() ? 1 : 0;
+        }
+        pool.shutdown();
+
+        assertEquals(100, reserved);
+        assertFalse(ledger.reserve(Map.of(1L, 1)).isComplete());
+    }
+
+    @Test
+    public void testReserve_AllLinesOrNone() throws Exception {
+        InventoryLedger ledger = newLedger(Map.of(1L, 5L, 2L, 1L));
+
+        Reservation failed = ledger.reserve(Map.of(1L, 2, 2L, 3));
+
+        assertEquals(List.of(2L), failed.getShortBookIds());
+        assertTrue(ledger.reserve(Map.of(1L, 5)).isComplete());
+    }
+
+    @Test
+    public void testStart_ReplaysUnflushedJournal() throws Exception {
+        InventoryLedger first = newLedger(Map.of(1L, 10L));
+        first.reserve(Map.of(1L, 3));
+        first.setStock(2L, 7);
+        // Simulates a crash: no flush, no stop
+
+        newLedger(Map.of(1L, 10L, 2L, 0L));
+
+        assertEquals(Map.of(1L, 7L, 2L, 7L), replayedStock());
+    }
+
+    @Test
+    public void testReserve_GivesBackEveryLineWhenJournalFails() throws Exception {
+        InventoryLedger first = newLedger(Map.of(1L, 10L, 2L, 5L));
+        InventoryJournal journal = spy((InventoryJournal) ReflectionTestUtils.getField(first, "journal"));
+        doThrow(new IOException("disk full")).when(journal)
+                .append(eq(InventoryJournal.RESERVE), eq(2L), eq(-1L), anyLong());
+        ReflectionTestUtils.setField(first, "journal", journal);
+
+        assertThrows(UncheckedIOException.class, () -> first.reserve(Map.of(1L, 3, 2L, 1)));
+        assertTrue(first.reserve(Map.of(1L, 10, 2L, 5)).isComplete());
+
+        // Replay after a crash: the line of book 1 written before the failure was never committed
+        newLedger(Map.of(1L, 10L, 2L, 5L));
+        Map<Object, Object> stock = replayedStock();
+        assertEquals(0L, stock.get(1L));
+        assertEquals(0L, stock.get(2L));
+    }
+
+    @Test
+    public void testStart_DropsReservationsOfOrdersThatNeverCommitted() throws Exception {
+        InventoryLedger first = newLedger(Map.of(1L, 10L, 2L, 5L));
+        first.reserve(Map.of(2L, 1));
+        inTransaction(() -> first.reserve(Map.of(1L, 4)));
+        // Crash before the order committed: no completion callback
+
+        newLedger(Map.of(1L, 10L, 2L, 5L));
+
+        assertEquals(Map.of(2L, 4L), replayedStock());
+    }
+
+    @Test
+    public void testStart_ReplaysReservationCommittedAfterAFlush() throws Exception {
+        InventoryLedger first = newLedger(Map.of(1L, 10L, 2L, 5L));
+        List<TransactionSynchronization> order = inTransaction(() -> first.reserve(Map.of(1L, 4)));
+        first.setStock(2L, 7);
+        first.flush();
+        order.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        // Crash before the next flush
+
+        newLedger(Map.of(1L, 10L, 2L, 7L));
+
+        assertEquals(Map.of(1L, 6L), replayedStock());
+    }
+
+    /** Runs the action as if in a transaction and returns its synchronizations without completing them. */
+    private static List<TransactionSynchronization> inTransaction(Runnable action) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            action.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Object, Object> replayedStock() {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        Map<Object, Object> stock = new HashMap<>();
+        for (Object[] row : rows.getValue()) {
+            stock.put(row[1], row[0]);
+        }
+        return stock;
+    }
+
+    @SuppressWarnings("unchecked")
+    private InventoryLedger newLedger(Map<Long, Long> stock) throws Exception {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(Object[].class))).thenAnswer(i -> {
+            Long stockValue = stock.get((Long) i.getArgument(2));
+            return stockValue == null ? List.of() : List.of(stockValue);
+        });
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(i -> {
+            ((Consumer<Object>) i.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        InventoryCheckpointRepository checkpoints = mock(InventoryCheckpointRepository.class);
+        when(checkpoints.findById(any())).thenReturn(Optional.empty());
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        Cache cache = mock(Cache.class);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        when(cache.unwrap(org.hibernate.Cache.class)).thenReturn(mock(org.hibernate.Cache.class));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[0]);
+
+        InventoryLedger ledger = new InventoryLedger();
+        ReflectionTestUtils.setField(ledger, "mode", "ledger");
+        ReflectionTestUtils.setField(ledger, "journalDir", journalDir.toString());
+        ReflectionTestUtils.setField(ledger, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(ledger, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(ledger, "checkpointRepository", checkpoints);
+        ReflectionTestUtils.setField(ledger, "entityManagerFactory", entityManagerFactory);
+        ReflectionTestUtils.setField(ledger, "catalogCache", mock(CatalogCache.class));
+        ReflectionTestUtils.setField(ledger, "catalogStatsService", mock(CatalogStatsService.class));
+        ledger.start();
+        return ledger;
+    }
+}
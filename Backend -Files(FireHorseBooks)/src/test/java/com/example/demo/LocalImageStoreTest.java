@@ -0,0 +1,59 @@
+package com.example.demo;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.demo.service.LocalImageStore;
+
+public class LocalImageStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testPut_DeduplicatesByContent() throws Exception {
+        LocalImageStore store = new LocalImageStore(dir.toString());
+        byte[] bytes = "cover".getBytes(StandardCharsets.US_ASCII);
+
+        String first = store.put(new ByteArrayInputStream(bytes));
+        String second = store.put(new ByteArrayInputStream(bytes));
+
+        assertEquals(first, second);
+        assertEquals(64, first.length());
+        try (Stream<Path> files = Files.walk(dir)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count(), "Only one copy should be stored");
+        }
+    }
+
+    @Test
+    public void testTransferTo_CopiesRequestedRange() throws Exception {
+        LocalImageStore store = new LocalImageStore(dir.toString());
+        String key = store.put(new ByteArrayInputStream("0123456789".getBytes(StandardCharsets.US_ASCII)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        store.transferTo(key, 3, 4, Channels.newChannel(out));
+
+        assertTrue(store.exists(key));
+        assertEquals(10, store.size(key));
+        assertArrayEquals("3456".getBytes(StandardCharsets.US_ASCII), out.toByteArray());
+    }
+
+    @Test
+    public void testInvalidKey_IsRejected() throws Exception {
+        LocalImageStore store = new LocalImageStore(dir.toString());
+        assertThrows(IllegalArgumentException.class, () -> store.open("../../etc/passwd"));
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.demo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.dto.CartLineView;
+import com.example.demo.entity.Book;
+import com.example.demo.entity.CartItem;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.service.CartService;
+import com.example.demo.service.MemoryCartStore;
+
+// Cart changes reach cart_items only when the store writes them back
+@DataJpaTest(properties = "books.cart.store=memory")
+@Import({ CartService.class, MemoryCartStore.class, MemoryCartStoreTest.Config.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class MemoryCartStoreTest {
+
+    private static final Long USER_ID = 9L;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
+            return new TransactionTemplate(transactionManager);
+        }
+    }
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private MemoryCartStore cartStore;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long bookId;
+
+    @BeforeEach
+    public void setUp() {
+        Book book = new Book();
+        book.setTitle("Dune");
+        book.setAuthor("Frank Herbert");
+        book.setCategory("Fiction");
+        book.setPrice(BigDecimal.TEN);
+        book.setStock(10);
+        bookId = bookRepository.save(book).getId();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        cartService.clearCart(USER_ID);
+        cartStore.flush();
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    public void testAddToCart_IsWrittenBackOnFlush() {
+        cartService.addToCart(bookId, USER_ID, 2);
+        cartService.addToCart(bookId, USER_ID, 1);
+
+        assertEquals(0, rows());
+        List<CartLineView> cart = cartService.getCartByUser(USER_ID);
+        assertEquals(1, cart.size());
+        assertEquals(3, cart.get(0).getQuantity());
+
+        cartStore.flush();
+
+        assertEquals(1, rows());
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT quantity FROM cart_items WHERE id = ?", Integer.class, cart.get(0).getId()));
+    }
+
+    @Test
+    public void testEvictedCart_ReloadsWithSameLineIds() {
+        Long lineId = cartService.addToCart(bookId, USER_ID, 2).getId();
+        ReflectionTestUtils.setField(cartStore, "ttlMs", -1L);
+        try {
+            cartStore.flush();
+        } finally {
+            ReflectionTestUtils.setField(cartStore, "ttlMs", 1800000L);
+        }
+
+        // The cart is read back from the table; its line id still works
+        cartService.updateQuantity(lineId, 5);
+        List<CartLineView> cart = cartService.getCartByUser(USER_ID);
+        assertEquals(lineId, cart.get(0).getId());
+        assertEquals(5, cart.get(0).getQuantity());
+
+        cartService.removeFromCart(lineId);
+        cartStore.flush();
+        assertEquals(0, rows());
+    }
+
+    @Test
+    public void testCheckedOut_KeepsUnitsAddedAfterTheSnapshot() {
+        cartService.addToCart(bookId, USER_ID, 2);
+        List<CartItem> ordered = cartStore.findByUserId(USER_ID);
+        cartService.addToCart(bookId, USER_ID, 3);
+
+        cartStore.checkedOut(ordered);
+
+        List<CartLineView> cart = cartService.getCartByUser(USER_ID);
+        assertEquals(1, cart.size());
+        assertEquals(3, cart.get(0).getQuantity());
+    }
+
+    @Test
+    public void testCheckedOut_RemovesUnchangedLine() {
+        cartService.addToCart(bookId, USER_ID, 2);
+
+        cartStore.checkedOut(cartStore.findByUserId(USER_ID));
+
+        assertEquals(0, cartService.getCartByUser(USER_ID).size());
+    }
+
+    private int rows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cart_items WHERE user_id = ?", Integer.class, USER_ID);
+    }
+}
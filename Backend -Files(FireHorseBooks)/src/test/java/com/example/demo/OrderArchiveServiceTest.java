@@ -0,0 +1,163 @@
+package com.example.demo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.example.demo.dto.OrderHistorySlice;
+import com.example.demo.dto.OrderSummaryView;
+import com.example.demo.entity.Book;
+import com.example.demo.entity.Order;
+import com.example.demo.entity.OrderItem;
+import com.example.demo.service.CartStore;
+import com.example.demo.service.CatalogCache;
+import com.example.demo.service.CatalogStatsService;
+import com.example.demo.service.OrderArchiveService;
+import com.example.demo.service.OrderService;
+import com.example.demo.service.OutboxService;
+import com.example.demo.service.StockReservationService;
+
+@DataJpaTest(properties = "books.orders.archive.batch-size=4")
+@Import({ OrderService.class, OrderArchiveService.class })
+public class OrderArchiveServiceTest {
+
+    private static final Long USER_ID = 11L;
+
+    @MockitoBean
+    private CartStore cartStore;
+
+    @MockitoBean
+    private StockReservationService stockReservationService;
+
+    @MockitoBean
+    private OutboxService outboxService;
+
+    @MockitoBean
+    private CatalogStatsService catalogStatsService;
+
+    @MockitoBean
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private OrderService orderService;
+
+    private Book book;
+    private final List<Long> orderIds = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        book = new Book();
+        book.setTitle("Dune");
+        book.setAuthor("Herbert");
+        book.setCategory("Fiction");
+        book.setPrice(new BigDecimal("10.00"));
+        book.setStock(100);
+        entityManager.persist(book);
+        // Ten orders a day apart, oldest first
+        LocalDateTime start = LocalDateTime.now().minusDays(10);
+        for (int i = 0; i < 10; i++) {
+            Long id = order(i + 1).getId();
+            entityManager.flush();
+            jdbcTemplate.update("UPDATE orders SET created_at = ? WHERE id = ?",
+                    Timestamp.valueOf(start.plusDays(i)), id);
+            orderIds.add(id);
+        }
+        entityManager.clear();
+    }
+
+    @Test
+    public void testArchiveBatch_MovesOldestOrdersAndKeepsSales() {
+        LocalDateTime horizon = LocalDateTime.now().minusDays(4).minusHours(12);
+
+        assertEquals(4, orderArchiveService.archiveBatch(horizon));
+        assertEquals(2, orderArchiveService.archiveBatch(horizon));
+        assertEquals(0, orderArchiveService.archiveBatch(horizon));
+
+        assertEquals(4, count("orders"));
+        assertEquals(4, count("order_items"));
+        assertEquals(6, count("orders_archive"));
+        // Orders 1..6 had 21 units between them
+        assertEquals(21L, jdbcTemplate.queryForObject(
+                "SELECT units FROM archived_book_sales WHERE book_id = ?", Long.class, book.getId()));
+        assertEquals(0, new BigDecimal("210.00").compareTo(jdbcTemplate.queryForObject(
+                "SELECT revenue FROM archived_book_sales WHERE book_id = ?", BigDecimal.class, book.getId())));
+    }
+
+    @Test
+    public void testHistory_PagesFromLiveOrdersIntoArchive() {
+        orderArchiveService.archiveBatch(LocalDateTime.now().minusDays(4).minusHours(12));
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            OrderHistorySlice page = orderService.getOrderHistory(USER_ID, cursor, 3);
+            for (OrderSummaryView order : page.getItems()) {
+                seen.add(order.getId());
+                assertEquals(1, order.getItems().size());
+                assertEquals(book.getId(), order.getItems().get(0).getBookId());
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        List<Long> expected = new ArrayList<>(orderIds);
+        Collections.reverse(expected);
+        assertEquals(expected, seen);
+        // Quantities survive the trip through the JSON column
+        OrderSummaryView oldest = orderService.getOrderHistory(USER_ID, null, 10).getItems().get(9);
+        assertEquals(1, oldest.getItems().get(0).getQuantity());
+    }
+
+    @Test
+    public void testHistory_LastPageHasNoCursor() {
+        OrderHistorySlice page = orderService.getOrderHistory(USER_ID, null, 10);
+
+        assertEquals(10, page.getItems().size());
+        assertFalse(page.isHasNext());
+        assertNull(page.getNextCursor());
+    }
+
+    private Order order(int quantity) {
+        OrderItem item = new OrderItem();
+        item.setBook(book);
+        item.setTitle(book.getTitle());
+        item.setPrice(book.getPrice());
+        item.setQuantity(quantity);
+        Order order = new Order();
+        order.setUserId(USER_ID);
+        order.setOrderDate(LocalDate.now());
+        order.setTotalAmount(book.getPrice().multiply(BigDecimal.valueOf(quantity)));
+        order.setItems(new ArrayList<>(List.of(item)));
+        item.setOrder(order);
+        return entityManager.persist(order);
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+}
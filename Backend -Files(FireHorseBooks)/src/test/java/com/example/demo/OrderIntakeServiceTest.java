@@ -0,0 +1,107 @@
+package com.example.demo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.demo.dto.OrderRequest;
+import com.example.demo.repository.OrderRepository;
+import com.example.demo.service.OrderIntakeService;
+import com.example.demo.service.OrderService;
+
+public class OrderIntakeServiceTest {
+
+    @TempDir
+    private Path journalDir;
+
+    private final OrderService orderService = mock(OrderService.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private OrderIntakeService running;
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        if (running != null) {
+            running.stop();
+        }
+    }
+
+    @Test
+    public void testSubmit_SameKeyReturnsSameRequest() throws Exception {
+        OrderIntakeService intake = intake();
+        intake.start();
+
+        OrderRequest first = intake.submit(1L, "key-1");
+        OrderRequest retried = intake.submit(1L, "key-1");
+        OrderRequest otherUser = intake.submit(2L, "key-1");
+
+        assertSame(first, retried);
+        assertNotEquals(first.getId(), otherUser.getId());
+        assertEquals(OrderRequest.QUEUED, first.getStatus());
+        verify(orderService, never()).placeOrders(anyList());
+    }
+
+    @Test
+    public void testSubmit_WithoutKeySkipsTheOrderLookup() throws Exception {
+        OrderIntakeService intake = intake();
+        intake.start();
+
+        intake.submit(1L, null);
+        intake.submit(1L, "key-1");
+
+        verify(orderRepository, times(1)).findByRequestIdForStatus(anyString());
+    }
+
+    @Test
+    public void testStart_ReplaysCheckoutsLeftInTheJournal() throws Exception {
+        OrderIntakeService crashed = intake();
+        crashed.start();
+        OrderRequest accepted = crashed.submit(1L, "key-1");
+        crashed.stop();
+
+        when(orderService.placeOrders(any())).thenAnswer(i -> {
+            List<OrderRequest> batch = i.getArgument(0);
+            OrderService.BatchResult result = new OrderService.BatchResult();
+            result.getOrderIds().put(batch.get(0).getId(), 42L);
+            return result;
+        });
+        running = intake();
+        running.start();
+        running.startWorker();
+
+        OrderRequest replayed = running.getStatus(accepted.getId());
+        for (int i = 0; i < 100 && !replayed.isDone(); i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(OrderRequest.PLACED, replayed.getStatus());
+        assertEquals(42L, replayed.getOrderId());
+        assertEquals(1L, replayed.getUserId());
+    }
+
+    private OrderIntakeService intake() {
+        OrderIntakeService intake = new OrderIntakeService();
+        ReflectionTestUtils.setField(intake, "orderService", orderService);
+        ReflectionTestUtils.setField(intake, "orderRepository", orderRepository);
+        ReflectionTestUtils.setField(intake, "enabled", true);
+        ReflectionTestUtils.setField(intake, "queueCapacity", 10);
+        ReflectionTestUtils.setField(intake, "batchSize", 5);
+        ReflectionTestUtils.setField(intake, "journalDir", journalDir.toString());
+        ReflectionTestUtils.setField(intake, "statusRetentionMs", 60_000L);
+        return intake;
+    }
+}
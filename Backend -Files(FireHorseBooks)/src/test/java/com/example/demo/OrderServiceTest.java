@@ -1,27 +1,45 @@
 package com.example.demo;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.example.demo.dto.OrderRequest;
 import com.example.demo.entity.Book;
 import com.example.demo.entity.CartItem;
 import com.example.demo.entity.Order;
-import com.example.demo.repository.BookRepository;
-import com.example.demo.repository.CartRepository;
 import com.example.demo.repository.OrderRepository;
+import com.example.demo.service.CartStore;
+import com.example.demo.service.CatalogCache;
+import com.example.demo.service.CatalogStatsService;
+import com.example.demo.event.OrderPlaced;
+import com.example.demo.event.StockChanged;
 import com.example.demo.service.OrderService;
+import com.example.demo.service.OutboxService;
+import com.example.demo.service.StockReservationService;
+import com.example.demo.service.StockReservationService.Reservation;
 
 @ExtendWith(MockitoExtension.class)
 public class OrderServiceTest {
@@ -30,44 +48,134 @@ public class OrderServiceTest {
     private OrderRepository orderRepository;
 
     @Mock
-    private CartRepository cartRepository;
+    private CartStore cartStore;
 
     @Mock
-    private BookRepository bookRepository;
+    private StockReservationService stockReservationService;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private CatalogStatsService catalogStatsService;
+
+    @Mock
+    private CatalogCache catalogCache;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
 
     @InjectMocks
     private OrderService orderService;
 
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(orderService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(orderService, "retryBackoffMs", 0L);
+        when(transactionTemplate.execute(any())).thenAnswer(
+                i -> ((TransactionCallback<?>) i.getArgument(0)).doInTransaction(null));
+    }
+
     @Test
     public void testPlaceOrder_DecrementsStock() {
         // Arrange
         Long userId = 1L;
         Long bookId = 100L;
-        int initialStock = 15;
         int quantityToBuy = 1;
 
-        Book book = new Book();
-        book.setId(bookId);
-        book.setTitle("Test Book");
-        book.setStock(initialStock);
-        book.setPrice(BigDecimal.TEN);
-
-        CartItem cartItem = new CartItem();
-        cartItem.setBook(book);
-        cartItem.setQuantity(quantityToBuy);
-        cartItem.setUserId(userId);
+        CartItem cartItem = cartItem(userId, book(bookId), quantityToBuy);
 
-        when(cartRepository.findByUserId(userId)).thenReturn(Collections.singletonList(cartItem));
+        when(cartStore.findByUserId(userId)).thenReturn(Collections.singletonList(cartItem));
+        when(stockReservationService.reserve(Map.of(bookId, quantityToBuy)))
+                .thenReturn(new Reservation(List.of(), Map.of(bookId, 14)));
         when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArguments()[0]);
 
         // Act
-        orderService.placeOrder(userId);
+        Order order = orderService.placeOrder(userId);
 
         // Assert
-        ArgumentCaptor<Book> bookCaptor = ArgumentCaptor.forClass(Book.class);
-        verify(bookRepository).save(bookCaptor.capture());
+        verify(stockReservationService).reserve(Map.of(bookId, quantityToBuy));
+        verify(outboxService).publish(argThat(event -> event instanceof StockChanged stock
+                && stock.getBookId().equals(bookId) && stock.getStock() == 14));
+        verify(outboxService).publish(argThat(event -> event instanceof OrderPlaced placed
+                && placed.getLines().size() == 1));
+        assertEquals(new BigDecimal("10"), order.getTotalAmount());
+    }
+
+    @Test
+    public void testPlaceOrder_FailsWhenStockIsShort() {
+        Long userId = 1L;
+        CartItem cartItem = cartItem(userId, book(100L), 5);
+
+        when(cartStore.findByUserId(userId)).thenReturn(Collections.singletonList(cartItem));
+        when(stockReservationService.reserve(any()))
+                .thenReturn(new Reservation(List.of(100L), Map.of()));
 
-        Book savedBook = bookCaptor.getValue();
-        assertEquals(14, savedBook.getStock(), "Stock should be decremented by 1");
+        RuntimeException e = assertThrows(RuntimeException.class, () -> orderService.placeOrder(userId));
+
+        assertEquals("Not enough stock for book: Test Book", e.getMessage());
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(stockReservationService, times(1)).reserve(any());
+    }
+
+    @Test
+    public void testPlaceOrder_RetriesOnLockConflict() {
+        Long userId = 1L;
+        CartItem cartItem = cartItem(userId, book(100L), 1);
+
+        when(cartStore.findByUserId(userId)).thenReturn(Collections.singletonList(cartItem));
+        when(stockReservationService.reserve(any()))
+                .thenThrow(new CannotAcquireLockException("deadlock"))
+                .thenReturn(new Reservation(List.of(), Map.of(100L, 14)));
+        when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        orderService.placeOrder(userId);
+
+        verify(stockReservationService, times(2)).reserve(any());
+        verify(orderRepository, times(1)).save(any(Order.class));
+    }
+
+    @Test
+    public void testPlaceOrders_RejectsOnlyTheCheckoutThatIsShort() {
+        OrderRequest placed = new OrderRequest("r1", 1L, LocalDateTime.now());
+        OrderRequest shortOfStock = new OrderRequest("r2", 2L, LocalDateTime.now());
+        OrderRequest replayed = new OrderRequest("r3", 3L, LocalDateTime.now());
+
+        when(orderRepository.findIdsByRequestIds(List.of("r1", "r2", "r3")))
+                .thenReturn(List.<Object[]>of(new Object[] { "r3", 7L }));
+        when(cartStore.findByUserIdIn(any())).thenReturn(List.of(
+                cartItem(1L, book(100L), 1), cartItem(2L, book(200L), 5)));
+        when(stockReservationService.reserve(Map.of(100L, 1)))
+                .thenReturn(new Reservation(List.of(), Map.of(100L, 14)));
+        when(stockReservationService.reserve(Map.of(200L, 5)))
+                .thenReturn(new Reservation(List.of(200L), Map.of()));
+        when(orderRepository.saveAll(any())).thenAnswer(i -> {
+            Iterable<Order> orders = i.getArgument(0);
+            orders.forEach(order -> order.setId(42L));
+            return List.of();
+        });
+
+        OrderService.BatchResult result = orderService.placeOrders(List.of(placed, shortOfStock, replayed));
+
+        assertEquals(Map.of("r1", 42L, "r3", 7L), result.getOrderIds());
+        assertEquals(Map.of("r2", "Not enough stock for book: Test Book"), result.getErrors());
+        verify(cartStore).checkedOut(argThat(items -> ((List<?>) items).size() == 1));
+    }
+
+    private static Book book(Long id) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle("Test Book");
+        book.setStock(15);
+        book.setPrice(BigDecimal.TEN);
+        return book;
+    }
+
+    private static CartItem cartItem(Long userId, Book book, int quantity) {
+        CartItem cartItem = new CartItem();
+        cartItem.setBook(book);
+        cartItem.setQuantity(quantity);
+        cartItem.setUserId(userId);
+        return cartItem;
     }
 }
@@ -0,0 +1,119 @@
+package com.example.demo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.event.BookAdded;
+import com.example.demo.event.StockChanged;
+import com.example.demo.repository.OutboxEventRepository;
+import com.example.demo.service.OutboxRelay;
+import com.example.demo.service.OutboxService;
+
+// Events are only relayed once their transaction commits
+@DataJpaTest
+@Import({ OutboxService.class, OutboxRelay.class, OutboxRelayTest.Listener.class })
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class OutboxRelayTest {
+
+    @TestConfiguration
+    static class Listener {
+        final List<Object> received = new ArrayList<>();
+        int failuresLeft;
+
+        @EventListener
+        void onBookAdded(BookAdded event) {
+            received.add(event);
+        }
+
+        @EventListener
+        void onStockChanged(StockChanged event) {
+            if (failuresLeft > 0) {
+                failuresLeft--;
+                throw new IllegalStateException("listener down");
+            }
+            received.add(event);
+        }
+
+        @Bean
+        TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
+            return new TransactionTemplate(transactionManager);
+        }
+    }
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private Listener listener;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    public void tearDown() {
+        outboxEventRepository.deleteAll();
+        listener.received.clear();
+    }
+
+    @Test
+    public void testRelay_DeliversCommittedEventsInOrderAndDeletesThem() {
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxService.publish(new BookAdded(1L, "Dune", "Frank Herbert", "Fiction", BigDecimal.TEN, 3));
+            outboxService.publish(new StockChanged(1L, 2));
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxService.publish(new StockChanged(1L, 0));
+            status.setRollbackOnly();
+        });
+
+        outboxRelay.relay();
+
+        assertEquals(2, listener.received.size());
+        assertEquals("Dune", ((BookAdded) listener.received.get(0)).getTitle());
+        assertEquals(2, ((StockChanged) listener.received.get(1)).getStock());
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    @Test
+    public void testRelay_RedeliversAfterListenerFailure() {
+        listener.failuresLeft = 1;
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxService.publish(new StockChanged(5L, 4));
+            outboxService.publish(new BookAdded(6L, "Emma", "Jane Austen", "Fiction", BigDecimal.ONE, 1));
+        });
+
+        outboxRelay.relay();
+        assertEquals(0, listener.received.size());
+        assertEquals(1, outboxEventRepository.findAll().get(0).getAttempts());
+
+        outboxRelay.relay();
+        assertEquals(2, listener.received.size());
+        assertEquals(5L, ((StockChanged) listener.received.get(0)).getBookId());
+        assertEquals(0, outboxEventRepository.count());
+    }
+}
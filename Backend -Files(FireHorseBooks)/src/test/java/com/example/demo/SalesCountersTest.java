@@ -0,0 +1,66 @@
+package com.example.demo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.service.SalesCounters;
+
+public class SalesCountersTest {
+
+    private static final long HOUR = 500_000;
+    private static final long DAY = 20_000;
+
+    private SalesCounters<Long> counters;
+
+    @BeforeEach
+    public void setUp() {
+        counters = new SalesCounters<>();
+        counters.add(1L, HOUR, DAY, 2, 2000);
+        counters.add(2L, HOUR, DAY, 5, 1500);
+        counters.add(3L, HOUR - 30, DAY - 3, 4, 4000);
+    }
+
+    @Test
+    public void testTop_RanksWithinWindow() {
+        List<SalesCounters.Total<Long>> byUnits = counters.top(false, 24, HOUR, 10, false);
+        assertEquals(List.of(2L, 1L), byUnits.stream().map(SalesCounters.Total::getKey).toList());
+
+        List<SalesCounters.Total<Long>> byRevenue = counters.top(true, 7, DAY, 2, true);
+        assertEquals(List.of(3L, 1L), byRevenue.stream().map(SalesCounters.Total::getKey).toList());
+    }
+
+    @Test
+    public void testAdd_ReusesBucketsThatLeftTheRing() {
+        long later = HOUR + SalesCounters.HOURS;
+        counters.add(1L, later, DAY + 2, 1, 1000);
+
+        // The sale at HOUR is older than the hourly ring now; its bucket holds the new one
+        assertEquals(1, counters.total(1L, false, SalesCounters.HOURS, later).getUnits());
+        assertEquals(3, counters.total(1L, true, 7, DAY + 2).getUnits());
+        // Nothing sold since, so a later window finds the ring empty
+        assertEquals(0, counters.total(2L, false, SalesCounters.HOURS, later).getUnits());
+    }
+
+    @Test
+    public void testSnapshot_RoundTrips() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        counters.write(new DataOutputStream(bytes), SalesCounters.KeyCodec.LONG);
+
+        SalesCounters<Long> copy = new SalesCounters<>();
+        copy.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), SalesCounters.KeyCodec.LONG);
+        copy.add(1L, HOUR, DAY, 1, 1000);
+
+        assertEquals(3, copy.size());
+        assertEquals(3, copy.total(1L, false, 1, HOUR).getUnits());
+        assertEquals(4000, copy.total(3L, true, 90, DAY).getCents());
+    }
+}
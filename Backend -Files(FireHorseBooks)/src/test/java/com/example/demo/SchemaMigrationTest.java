@@ -0,0 +1,78 @@
+package com.example.demo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.entity.Book;
+import com.example.demo.entity.CartItem;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.repository.CartRepository;
+
+/**
+ * Upgrades a database in the state the last release left it (V1, no Flyway
+ * history) the way production does: it is baselined at V1 and gets every
+ * later migration. The context only starts if Hibernate then validates every
+ * mapping against the result.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+public class SchemaMigrationTest {
+
+    @TestConfiguration
+    static class LegacyDatabase {
+
+        @Bean
+        FlywayMigrationStrategy upgradeFromLastRelease() {
+            return flyway -> {
+                DataSource dataSource = flyway.getConfiguration().getDataSource();
+                Flyway.configure().configuration(flyway.getConfiguration()).target("1").load().migrate();
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+                jdbcTemplate.execute("DROP TABLE flyway_schema_history");
+                jdbcTemplate.update("INSERT INTO books (title, author, category, price, stock) "
+                        + "VALUES ('Dune', 'Herbert', 'Fiction', 10.00, 5)");
+                Long bookId = jdbcTemplate.queryForObject("SELECT id FROM books", Long.class);
+                // Two adds of the same book used to be able to race into two lines
+                jdbcTemplate.update("INSERT INTO cart_items (user_id, book_id, quantity) VALUES (7, ?, 2)", bookId);
+                jdbcTemplate.update("INSERT INTO cart_items (user_id, book_id, quantity) VALUES (7, ?, 3)", bookId);
+                flyway.migrate();
+            };
+        }
+    }
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Test
+    public void testMigrate_BaselinesLastReleaseAndAppliesEveryLaterVersion() {
+        MigrationInfo[] applied = flyway.info().applied();
+        assertEquals("1", applied[0].getVersion().getVersion());
+        assertEquals("BASELINE", applied[0].getType().name());
+        MigrationInfo[] all = flyway.info().all();
+        assertEquals(all[all.length - 1].getVersion(), flyway.info().current().getVersion());
+        assertEquals(0, flyway.info().pending().length);
+
+        Book book = bookRepository.findAll().get(0);
+        assertEquals(0L, book.getVersion());
+        List<CartItem> cart = cartRepository.findByUserId(7L);
+        assertEquals(1, cart.size());
+        assertEquals(5, cart.get(0).getQuantity());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.demo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.service.SearchIndexService;
+
+public class SearchIndexServiceTest {
+
+    private SearchIndexService searchIndex;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        searchIndex = new SearchIndexService();
+        searchIndex.index(1L, "Dune", "Frank Herbert", "Science Fiction");
+        searchIndex.index(2L, "The Hobbit", "J.R.R. Tolkien", "Fantasy");
+        searchIndex.index(3L, "Herbert the Dog", "Sam Dune", "Kids");
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        searchIndex.close();
+    }
+
+    @Test
+    public void testSearch_MatchesPrefixesAcrossFields() {
+        assertEquals(List.of(2L), searchIndex.search("hob", 0, 10).getIds());
+        assertEquals(List.of(1L), searchIndex.search("frank her", 0, 10).getIds());
+    }
+
+    @Test
+    public void testSearch_TitleMatchOutranksAuthorMatch() {
+        SearchIndexService.SearchHits hits = searchIndex.search("dune", 0, 10);
+
+        assertEquals(2, hits.getTotal());
+        assertEquals(List.of(1L, 3L), hits.getIds());
+    }
+
+    @Test
+    public void testRemove_DropsBookFromResults() {
+        searchIndex.remove(1L);
+
+        assertEquals(List.of(3L), searchIndex.search("dune", 0, 10).getIds());
+    }
+
+    @Test
+    public void testSearch_PagesThroughMatches() {
+        assertEquals(List.of(3L), searchIndex.search("dune", 1, 1).getIds());
+        assertEquals(3, searchIndex.search("", 0, 10).getTotal());
+    }
+
+    @Test
+    public void testSearch_RejectsPagesPastTheResultWindow() {
+        assertThrows(IllegalArgumentException.class, () -> searchIndex.search("dune", 100, 100));
+        assertThrows(IllegalArgumentException.class, () -> searchIndex.search("dune", Integer.MAX_VALUE, 100));
+    }
+}
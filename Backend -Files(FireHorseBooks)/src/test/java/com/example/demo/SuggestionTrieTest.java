@@ -0,0 +1,45 @@
+package com.example.demo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.dto.Suggestion;
+import com.example.demo.service.SuggestionTrie;
+
+public class SuggestionTrieTest {
+
+    private final SuggestionTrie trie = SuggestionTrie.build(List.of(
+            new Suggestion("Dune", "title", 1L, 5),
+            new Suggestion("Dune Messiah", "title", 2L, 40),
+            new Suggestion("The Hobbit", "title", 3L, 10),
+            new Suggestion("Dracula", "title", 4L, 1),
+            new Suggestion("Frank Herbert", "author", null, 45)), 2);
+
+    @Test
+    public void testLookup_RanksByPopularity() {
+        assertEquals(List.of("Dune Messiah", "Dune"), texts(trie.lookup("du", 10)));
+    }
+
+    @Test
+    public void testLookup_MatchesWordStartsCaseInsensitively() {
+        assertEquals(List.of("The Hobbit"), texts(trie.lookup("HOB", 10)));
+        assertEquals(List.of("Frank Herbert"), texts(trie.lookup("herb", 10)));
+    }
+
+    @Test
+    public void testLookup_KeepsOnlyTopN() {
+        // "Dracula" matches "d" but ranks below the two stored suggestions
+        assertEquals(List.of("Dune Messiah", "Dune"), texts(trie.lookup("d", 10)));
+        assertEquals(List.of("Dune Messiah"), texts(trie.lookup("d", 1)));
+        assertTrue(trie.lookup("x", 10).isEmpty());
+    }
+
+    private static List<String> texts(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::getText).collect(Collectors.toList());
+    }
+}
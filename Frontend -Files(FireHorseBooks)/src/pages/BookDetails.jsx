@@ -210,7 +210,7 @@ function BookDetails() {
         <div className="book-image-section">
           <div className="image-wrapper">
             <img 
-              src={getImageSrc(book)} 
+              src={getImageSrc(book, { full: true })} 
               alt={book.title} 
               className="book-main-image"
               onError={(e) => handleImageError(e, book.title)}
@@ -1,9 +1,18 @@
+import { useEffect, useState } from "react";
 import { useAuth } from "../context/AuthContext";
 import { useNavigate } from "react-router-dom";
+import { getSellerDashboard } from "../services/api";
 
 function SellerDashboard() {
   const { user } = useAuth();
   const navigate = useNavigate();
+  const [stats, setStats] = useState(null);
+
+  useEffect(() => {
+    if (user) {
+      getSellerDashboard().then(setStats);
+    }
+  }, [user]);
 
   if (!user) {
     navigate("/login");
@@ -14,6 +23,31 @@ function SellerDashboard() {
     <div className="container">
       <h1>🏪 Seller Dashboard</h1>
       <p>Welcome, {user.name || "Seller"}! Manage your bookstore here.</p>
+
+      {stats && (
+        <div className="dashboard-grid">
+          <div className="dashboard-card">
+            <h3>📚 Books</h3>
+            <p>{stats.books} titles, {stats.stockUnits} in stock</p>
+          </div>
+          <div className="dashboard-card">
+            <h3>💰 Stock Value</h3>
+            <p>₹{Number(stats.stockValue).toFixed(2)}</p>
+          </div>
+          <div className="dashboard-card">
+            <h3>🛒 Sales</h3>
+            <p>{stats.unitsSold} sold, ₹{Number(stats.revenue).toFixed(2)} revenue</p>
+          </div>
+          <div className="dashboard-card">
+            <h3>⚠️ Low Stock</h3>
+            <p>
+              {stats.lowStock.length === 0
+                ? "Nothing running low"
+                : stats.lowStock.map((b) => `${b.title} (${b.stock})`).join(", ")}
+            </p>
+          </div>
+        </div>
+      )}
       
       <div className="dashboard-grid">
         <div className="dashboard-card">
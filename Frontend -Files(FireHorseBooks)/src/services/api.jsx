@@ -341,11 +341,18 @@ export const placeOrder = async (orderData) => {
 
   // Real API call
   try {
-    const response = await fetch(`${BASE_URL}/api/orders/place`, {
-      method: "POST",
-      headers: { "Content-Type": "application/json" },
-      body: JSON.stringify(orderData),
-    });
+    // The same key on a retry returns the checkout already accepted instead of a second order
+    const idempotencyKey = crypto.randomUUID();
+    let response;
+    for (let attempt = 0; ; attempt++) {
+      response = await fetch(`${BASE_URL}/api/orders/place/${orderData.userId}`, {
+        method: "POST",
+        headers: { "Idempotency-Key": idempotencyKey },
+      });
+      // 503: intake queue full, try again shortly
+      if (response.status !== 503 || attempt >= 4) break;
+      await delay(1000);
+    }
     
     if (!response.ok) {
       throw new Error(`Failed to place order: ${response.status}`);
@@ -353,7 +360,29 @@ export const placeOrder = async (orderData) => {
     
     const data = await response.json();
     console.log("Place order API response:", data);
-    return data;
+    // Synchronous placement answers with the order itself
+    if (data.orderDate !== undefined) {
+      return data;
+    }
+
+    // Queued checkout (202): poll the request until it is placed or rejected
+    let request = data;
+    const statusUrl = `${BASE_URL}/api/orders/${request.id}/status`;
+    for (let polls = 0; request.status !== "placed" && request.status !== "rejected"; polls++) {
+      if (polls >= 60) {
+        throw new Error("Order is still being processed");
+      }
+      await delay(500);
+      const statusResponse = await fetch(statusUrl);
+      if (!statusResponse.ok) {
+        throw new Error(`Failed to check order status: ${statusResponse.status}`);
+      }
+      request = await statusResponse.json();
+    }
+    if (request.status === "rejected") {
+      throw new Error(request.error || "Order was rejected");
+    }
+    return { ...orderData, id: request.orderId, status: "placed" };
   } catch (err) {
     console.error("Place order error:", err);
     throw new Error("Failed to place order. Please try again.");
@@ -373,7 +402,8 @@ export const getOrders = async (userId) => {
 
   // Real API call
   try {
-    const response = await fetch(`${BASE_URL}/api/orders/${userId}`);
+    // Newest orders first; the history is paged, pass nextCursor back for older ones
+    const response = await fetch(`${BASE_URL}/api/orders/user/${userId}`);
     
     if (!response.ok) {
       throw new Error(`Failed to load orders: ${response.status}`);
@@ -381,7 +411,7 @@ export const getOrders = async (userId) => {
     
     const data = await response.json();
     console.log("Orders API response:", data);
-    return Array.isArray(data) ? data : [];
+    return Array.isArray(data?.items) ? data.items : [];
   } catch (err) {
     console.error("Get orders error:", err);
     throw new Error("Failed to load orders.");
@@ -480,6 +510,12 @@ export const getBookImageUrl = (bookId) => {
   return `${BASE_URL}/api/books/${bookId}/image`;
 };
 
+// RESOLVE SERVER-RELATIVE IMAGE PATHS (e.g. thumbnail imageUrl)
+export const resolveImageUrl = (path) => {
+  if (!path || USE_MOCK_DATA) return path || null;
+  return path.startsWith("/") ? `${BASE_URL}${path}` : path;
+};
+
 // SEARCH BOOKS (Helper function)
 export const searchBooks = async (query, filters = {}) => {
   console.log("Searching books:", { query, filters });
@@ -626,3 +662,22 @@ export const getBookById = async (bookId) => {
 
 // Export mock data for testing
 export { mockBooks, mockUsers };
+
+// SELLER DASHBOARD (totals, categories, top sellers and low stock in one call)
+export const getSellerDashboard = async () => {
+  if (USE_MOCK_DATA) {
+    await delay(100);
+    return null;
+  }
+
+  try {
+    const response = await fetch(`${BASE_URL}/api/seller/dashboard`);
+    if (!response.ok) {
+      throw new Error(`HTTP ${response.status}`);
+    }
+    return await response.json();
+  } catch (err) {
+    console.error("Seller dashboard error:", err);
+    return null;
+  }
+};
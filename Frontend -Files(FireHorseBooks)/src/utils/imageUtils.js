@@ -2,16 +2,31 @@
 /**
  * Utility functions for handling book images
  */
+import { getBookImageUrl, resolveImageUrl } from "../services/api.jsx";
 
 /**
  * Get the appropriate image source for a book
  * @param {Object} book - The book object
+ * @param {Object} [options]
+ * @param {boolean} [options.full] - Use the original cover instead of the card thumbnail
  * @returns {string} - The image URL
  */
-export const getImageSrc = (book) => {
+export const getImageSrc = (book, { full = false } = {}) => {
   // Default placeholder if no book is provided
   if (!book) return "https://placehold.co/300x400/4A6572/FFFFFF?text=Book";
   
+  // Card thumbnail generated by the backend
+  if (!full && book.imageUrl) {
+    const url = resolveImageUrl(book.imageUrl);
+    if (url) return url;
+  }
+
+  // Catalog responses no longer embed the cover; it is served by the image endpoint
+  if (book.hasImage && book.id != null) {
+    const url = getBookImageUrl(book.id);
+    if (url) return url;
+  }
+
   // If book has image data
   if (book.image) {
     // If image is a string